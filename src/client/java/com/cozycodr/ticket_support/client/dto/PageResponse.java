@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PageResponse<T> {
@@ -20,4 +20,5 @@ public class PageResponse<T> {
     private boolean hasNext;
     private boolean last;
     private boolean first;
+    private String nextCursor;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.cozycodr.ticket_support.client.dto.ticket;
+
+import com.cozycodr.ticket_support.client.dto.comment.CommentResponse;
+import com.cozycodr.ticket_support.client.enums.TicketChangeType;
+import com.cozycodr.ticket_support.client.enums.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketChangeEvent {
+    private long sequence;
+    private TicketChangeType type;
+    private UUID ticketId;
+    // Set for TICKET_CREATED, a summary without description or comments
+    private TicketResponse ticket;
+    private TicketStatus previousStatus;
+    private TicketStatus status;
+    // Set for COMMENT_ADDED
+    private CommentResponse comment;
+    private LocalDateTime occurredAt;
+}
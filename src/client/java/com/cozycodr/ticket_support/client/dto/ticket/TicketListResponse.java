@@ -8,11 +8,13 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class TicketListResponse {
 
     List<TicketResponse> tickets;
 
+    String nextCursor;
+
 }
@@ -0,0 +1,5 @@
+package com.cozycodr.ticket_support.client.enums;
+
+public enum TicketChangeType {
+    TICKET_CREATED, TICKET_STATUS_CHANGED, COMMENT_ADDED
+}
@@ -0,0 +1,432 @@
+package com.cozycodr.ticket_support.client.service;
+
+import com.cozycodr.ticket_support.client.config.ObjectMapperConfig;
+import com.cozycodr.ticket_support.client.dto.ApiResponseBody;
+import com.cozycodr.ticket_support.client.utils.AuthManager;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The one HTTP client of the desktop app, shared by all services.
+ * <p>
+ * Connections are pooled and reused by a single {@link HttpClient} running on its own
+ * bounded executor. Every request gets a timeout and asks for gzip, responses are decoded
+ * here. JSON is read through {@link ObjectReader}s cached per response type. Request count,
+ * latency and bytes on the wire are counted for diagnostics.
+ * <p>
+ * All requests pass a {@link CircuitBreaker}, so a server that is down is not hammered.
+ * Idempotent requests sent with {@link #sendIdempotent} are also retried with jittered
+ * exponential backoff, and hedged with a second copy when they run slower than the recent p95.
+ */
+@Slf4j
+@Service
+public class ApiTransport {
+
+    /**
+     * A response with its body decoded to text
+     */
+    public record ApiResponse(int statusCode, HttpHeaders headers, String body) {
+    }
+
+    public record TransportStats(long requests, long failures, long bytesSent, long bytesReceived,
+                                 long bytesDecoded, double averageLatencyMillis, long maxLatencyMillis,
+                                 long retries, long hedges, long rejected) {
+    }
+
+    /**
+     * Thrown without contacting the server while the circuit breaker is open
+     */
+    public static class CircuitOpenException extends IOException {
+        public CircuitOpenException(long retryInMillis) {
+            super("Server unavailable, retrying in " + Math.max(1, retryInMillis / 1000) + "s");
+        }
+    }
+
+    // Responses that mean the server is overloaded or restarting, rather than a bad request
+    private static final Set<Integer> UNAVAILABLE_STATUSES = Set.of(429, 502, 503, 504);
+    private static final int LATENCY_SAMPLES = 100;
+    // Hedging only starts once the p95 is based on enough requests
+    private static final int MIN_HEDGE_SAMPLES = 20;
+
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final AuthManager authManager;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final CircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
+    private final boolean hedgingEnabled;
+
+    // Ring buffer of recent GET latencies in millis, for the hedging threshold
+    private final long[] latencySamples = new long[LATENCY_SAMPLES];
+    private int latencySampleCount;
+    private int nextLatencySample;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesDecoded = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public ApiTransport(
+            AuthManager authManager,
+            @Value("${app.api.base-url}") String baseUrl,
+            @Value("${app.api.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${app.api.request-timeout-ms:15000}") long requestTimeoutMs,
+            @Value("${app.api.threads:4}") int threads,
+            @Value("${app.api.retry.max-attempts:3}") int maxAttempts,
+            @Value("${app.api.retry.base-delay-ms:200}") long retryBaseDelayMs,
+            @Value("${app.api.retry.max-delay-ms:3000}") long retryMaxDelayMs,
+            @Value("${app.api.hedging.enabled:true}") boolean hedgingEnabled,
+            @Value("${app.api.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${app.api.circuit-breaker.open-ms:15000}") long openMs
+    ) {
+        this.authManager = authManager;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.retryMaxDelayMs = retryMaxDelayMs;
+        this.hedgingEnabled = hedgingEnabled;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+        this.baseUrl = baseUrl;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.objectMapper = ObjectMapperConfig.createObjectMapper();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "api-transport-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                // Negotiated per connection, plain http stays on HTTP/1.1 keep-alive
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * The shared client, for callers that need a raw exchange such as a long-lived stream
+     * @return the pooled client
+     */
+    public HttpClient httpClient() {
+        return httpClient;
+    }
+
+    public URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    /**
+     * Starts a JSON request with the default timeout, gzip accepted and the user's token attached
+     * @param path api path, e.g. "/tickets"
+     * @return request builder, the method is still to be set
+     */
+    public HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(uri(path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip");
+        String authHeader = authManager.getAuthHeader();
+        if (!authHeader.isEmpty()) {
+            builder.header("Authorization", authHeader);
+        }
+        return builder;
+    }
+
+    public HttpRequest.BodyPublisher jsonBody(Object value) throws JsonProcessingException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(value));
+    }
+
+    /**
+     * Sends a request once, decoding the body
+     * @param request the request
+     * @return the response, completes exceptionally on network errors, timeouts and with
+     * {@link CircuitOpenException} while the server is considered down
+     */
+    public CompletableFuture<ApiResponse> send(HttpRequest request) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new CircuitOpenException(circuitBreaker.remainingOpenMillis()));
+        }
+
+        long start = System.nanoTime();
+        long sent = request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(0L);
+
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<ApiResponse> result = exchange.thenApply(response -> {
+            byte[] body = decode(response);
+            long latency = System.nanoTime() - start;
+            record(sent, response.body().length, body.length, latency);
+            log.debug("{} {} -> {} in {} ms, {} bytes received, {} decoded",
+                    request.method(), request.uri().getPath(), response.statusCode(),
+                    TimeUnit.NANOSECONDS.toMillis(latency), response.body().length, body.length);
+            if ("GET".equals(request.method()) && response.statusCode() < 500) {
+                recordLatencySample(TimeUnit.NANOSECONDS.toMillis(latency));
+            }
+            return new ApiResponse(response.statusCode(), response.headers(),
+                    new String(body, StandardCharsets.UTF_8));
+        });
+
+        result.whenComplete((response, error) -> {
+            if (error instanceof CancellationException) {
+                // Lost a hedge race, abort the exchange
+                exchange.cancel(true);
+                circuitBreaker.release();
+            } else if (error != null) {
+                failures.increment();
+                circuitBreaker.onFailure();
+            } else if (UNAVAILABLE_STATUSES.contains(response.statusCode())) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sends a request that is safe to repeat, such as a GET or a POST carrying an Idempotency-Key.
+     * Network errors, timeouts and unavailable responses are retried with jittered exponential
+     * backoff, and a GET slower than the recent p95 latency is hedged with a second copy.
+     * @param request an idempotent request
+     * @return the first successful response, or the outcome of the last attempt
+     */
+    public CompletableFuture<ApiResponse> sendIdempotent(HttpRequest request) {
+        return attempt(request, 1);
+    }
+
+    private CompletableFuture<ApiResponse> attempt(HttpRequest request, int attempt) {
+        return hedged(request)
+                .handle((response, error) -> {
+                    boolean retryable = error != null
+                            ? isRetryable(error)
+                            : UNAVAILABLE_STATUSES.contains(response.statusCode());
+                    if (!retryable || attempt >= maxAttempts) {
+                        return error != null
+                                ? CompletableFuture.<ApiResponse>failedFuture(error)
+                                : CompletableFuture.completedFuture(response);
+                    }
+
+                    // Full jitter, so clients that failed together do not retry together
+                    long delay = ThreadLocalRandom.current().nextLong(retryCeilingMillis(attempt) + 1);
+                    retries.increment();
+                    log.debug("Retrying {} {} in {} ms, attempt {} of {}",
+                            request.method(), request.uri().getPath(), delay, attempt + 1, maxAttempts);
+                    return CompletableFuture.runAsync(() -> {},
+                                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor))
+                            .thenCompose(unused -> attempt(request, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    // Longest delay before retrying a failed attempt, doubling per attempt up to the max delay
+    long retryCeilingMillis(int attempt) {
+        int doublings = attempt - 1;
+        // Shifting further would overflow, the max delay has long been reached by then
+        if (doublings >= Long.numberOfLeadingZeros(retryBaseDelayMs) - 1) {
+            return retryMaxDelayMs;
+        }
+        return Math.min(retryMaxDelayMs, retryBaseDelayMs << doublings);
+    }
+
+    private CompletableFuture<ApiResponse> hedged(HttpRequest request) {
+        CompletableFuture<ApiResponse> primary = send(request);
+        // The threshold is measured on GETs, writes are not expected to be as fast
+        long hedgeDelay = "GET".equals(request.method()) ? hedgeDelayMillis() : -1;
+        if (hedgeDelay < 0) {
+            return primary;
+        }
+
+        CompletableFuture<ApiResponse> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        // The first response wins, an error only counts once no attempt is left
+        BiConsumer<ApiResponse, Throwable> settle = (response, error) -> {
+            if (error == null) {
+                result.complete(response);
+            } else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        };
+        primary.whenComplete(settle);
+
+        CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.MILLISECONDS, executor).execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            outstanding.incrementAndGet();
+            hedges.increment();
+            log.debug("Hedging {} {} after {} ms", request.method(), request.uri().getPath(), hedgeDelay);
+            CompletableFuture<ApiResponse> hedge = send(request);
+            hedge.whenComplete(settle);
+            result.whenComplete((response, error) -> hedge.cancel(true));
+        });
+        result.whenComplete((response, error) -> primary.cancel(true));
+        return result;
+    }
+
+    // Recent p95 GET latency, or -1 when hedging is off or there is not enough data yet
+    long hedgeDelayMillis() {
+        if (!hedgingEnabled) {
+            return -1;
+        }
+        long[] samples;
+        synchronized (latencySamples) {
+            if (latencySampleCount < MIN_HEDGE_SAMPLES) {
+                return -1;
+            }
+            samples = Arrays.copyOf(latencySamples, latencySampleCount);
+        }
+        Arrays.sort(samples);
+        return samples[(int) Math.ceil(samples.length * 0.95) - 1];
+    }
+
+    void recordLatencySample(long latencyMillis) {
+        synchronized (latencySamples) {
+            latencySamples[nextLatencySample] = latencyMillis;
+            nextLatencySample = (nextLatencySample + 1) % LATENCY_SAMPLES;
+            latencySampleCount = Math.min(latencySampleCount + 1, LATENCY_SAMPLES);
+        }
+    }
+
+    private boolean isRetryable(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        // An open breaker is not retried, retrying would only spin until it closes
+        return cause instanceof IOException && !(cause instanceof CircuitOpenException);
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    /**
+     * Sends a request and hands the data of the response envelope to onSuccess
+     * @param request the request
+     * @param expectedStatus status of a successful response
+     * @param responseType type of the response envelope
+     * @param action what the request does, used in error messages, e.g. "fetching tickets"
+     */
+    public <T> void exchange(HttpRequest request, int expectedStatus, TypeReference<ApiResponseBody<T>> responseType,
+                             String action, Consumer<T> onSuccess, Consumer<String> onError) {
+        deliver(send(request), expectedStatus, responseType, action, onSuccess, onError);
+    }
+
+    /**
+     * Parses a pending response and hands the data of the response envelope to onSuccess
+     * @see #exchange
+     */
+    public <T> void deliver(CompletableFuture<ApiResponse> pending, int expectedStatus,
+                            TypeReference<ApiResponseBody<T>> responseType,
+                            String action, Consumer<T> onSuccess, Consumer<String> onError) {
+        pending.thenAccept(response -> {
+                    if (response.statusCode() != expectedStatus) {
+                        onError.accept("Error " + action + ": HTTP " + response.statusCode());
+                        return;
+                    }
+                    T data;
+                    try {
+                        data = read(response.body(), responseType).getData();
+                    } catch (IOException e) {
+                        log.error("Error parsing {} response", action, e);
+                        onError.accept("Error parsing " + action + " response: " + e.getMessage());
+                        return;
+                    }
+                    onSuccess.accept(data);
+                })
+                .exceptionally(e -> {
+                    log.error("Exception during {}", action, e);
+                    onError.accept("Exception during " + action + ": " + e.getMessage());
+                    return null;
+                });
+    }
+
+    public <T> T read(String json, TypeReference<T> type) throws IOException {
+        return readers.computeIfAbsent(type.getType(),
+                key -> objectMapper.readerFor(objectMapper.getTypeFactory().constructType(key))).readValue(json);
+    }
+
+    public TransportStats stats() {
+        long count = requests.sum();
+        double averageLatency = count == 0 ? 0 : latencyNanos.sum() / (double) count / 1_000_000;
+        return new TransportStats(count, failures.sum(), bytesSent.sum(), bytesReceived.sum(),
+                bytesDecoded.sum(), averageLatency, TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()),
+                retries.sum(), hedges.sum(), rejected.sum());
+    }
+
+    private byte[] decode(HttpResponse<byte[]> response) {
+        boolean gzipped = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        if (!gzipped) {
+            return response.body();
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode gzip response", e);
+        }
+    }
+
+    private void record(long sent, long received, long decoded, long latency) {
+        requests.increment();
+        bytesSent.add(Math.max(sent, 0));
+        bytesReceived.add(received);
+        bytesDecoded.add(decoded);
+        latencyNanos.add(latency);
+        maxLatencyNanos.accumulate(latency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
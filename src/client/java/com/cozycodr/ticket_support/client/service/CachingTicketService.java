@@ -0,0 +1,286 @@
+package com.cozycodr.ticket_support.client.service;
+
+import com.cozycodr.ticket_support.client.dto.PageResponse;
+import com.cozycodr.ticket_support.client.dto.comment.SingleCommentResponse;
+import com.cozycodr.ticket_support.client.dto.ticket.TicketChangeEvent;
+import com.cozycodr.ticket_support.client.dto.ticket.TicketListResponse;
+import com.cozycodr.ticket_support.client.dto.ticket.TicketResponse;
+import com.cozycodr.ticket_support.client.enums.TicketStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Stale-while-revalidate cache in front of {@link ClientTicketService}.
+ * <p>
+ * Reads answer from the cache straight away when they can and always revalidate in the
+ * background. The data callback therefore runs once with the cached copy, and again only if
+ * the server returns something different. Revalidation is cheap because the underlying GETs
+ * are conditional. Local mutations and the ticket change stream patch or drop cached entries,
+ * so a cached copy is rarely wrong for long.
+ * <p>
+ * Callers may keep and show what they receive, so the cache never shares its objects: it
+ * stores copies, hands out copies, and patches an entry by replacing it with a changed copy.
+ */
+@Slf4j
+@Service
+public class CachingTicketService implements TicketChangeStreamService.TicketChangeListener {
+
+    private static final int MAX_ENTRIES = 200;
+    // Older entries are not shown at all, the caller waits for the network instead
+    private static final Duration MAX_STALENESS = Duration.ofMinutes(10);
+
+    private static final String MY_TICKETS_KEY = "tickets/user";
+    private static final String ALL_TICKETS_KEY = "tickets";
+    private static final String TICKET_KEY = "ticket/";
+
+    public record CacheStats(long hits, long misses, int size, long lastServedAgeMillis) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private record CacheEntry<T>(T value, long storedAtMillis) {
+    }
+
+    private final ClientTicketService ticketService;
+    private final Map<String, CacheEntry<?>> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry<?>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile long lastServedAgeMillis = -1;
+
+    @Autowired
+    public CachingTicketService(ClientTicketService ticketService, TicketChangeStreamService ticketChangeStream) {
+        this.ticketService = ticketService;
+        ticketChangeStream.addListener(this);
+    }
+
+    /**
+     * Tickets of the logged in user, see {@link ClientTicketService#fetchMyTickets}.
+     * onSuccess may be called twice, first with the cached and then with the revalidated page.
+     */
+    public void fetchMyTickets(String cursor, int size, Consumer<TicketListResponse> onSuccess, Consumer<String> onError) {
+        staleWhileRevalidate(listKey(MY_TICKETS_KEY, cursor, size),
+                (fresh, error) -> ticketService.fetchMyTickets(cursor, size, fresh, error),
+                onSuccess, onError);
+    }
+
+    /**
+     * All tickets for IT Support, see {@link ClientTicketService#fetchAllTickets}.
+     * onSuccess may be called twice, first with the cached and then with the revalidated page.
+     */
+    public void fetchAllTickets(String cursor, int size, Consumer<PageResponse<TicketResponse>> onSuccess, Consumer<String> onError) {
+        staleWhileRevalidate(listKey(ALL_TICKETS_KEY, cursor, size),
+                (fresh, error) -> ticketService.fetchAllTickets(cursor, size, fresh, error),
+                onSuccess, onError);
+    }
+
+    /**
+     * Details of one ticket, see {@link ClientTicketService#fetchTicketDetails}.
+     * onSuccess may be called twice, first with the cached and then with the revalidated ticket.
+     */
+    public void fetchTicketDetails(UUID ticketId, Consumer<TicketResponse> onSuccess, Consumer<String> onError) {
+        staleWhileRevalidate(TICKET_KEY + ticketId,
+                (fresh, error) -> ticketService.fetchTicketDetails(ticketId, fresh, error),
+                onSuccess, onError);
+    }
+
+    public void updateTicketStatus(UUID ticketId, TicketStatus newStatus,
+                                   Consumer<TicketResponse> onSuccess,
+                                   Consumer<String> onError) {
+        ticketService.updateTicketStatus(ticketId, newStatus, updatedTicket -> {
+            patchStatus(ticketId, updatedTicket.getStatus());
+            onSuccess.accept(updatedTicket);
+        }, onError);
+    }
+
+    public void addComment(UUID ticketId, String comment,
+                           Consumer<SingleCommentResponse> onSuccess,
+                           Consumer<String> onError) {
+        ticketService.addComment(ticketId, comment, response -> {
+            invalidate(TICKET_KEY + ticketId);
+            onSuccess.accept(response);
+        }, onError);
+    }
+
+    @Override
+    public void onTicketChanges(List<TicketChangeEvent> events) {
+        for (TicketChangeEvent event : events) {
+            switch (event.getType()) {
+                case TICKET_CREATED -> {
+                    // New tickets land on the first page of the lists
+                    invalidateFirstPages();
+                }
+                case TICKET_STATUS_CHANGED -> patchStatus(event.getTicketId(), event.getStatus());
+                case COMMENT_ADDED -> invalidate(TICKET_KEY + event.getTicketId());
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        clear();
+    }
+
+    /**
+     * Drops every entry and resets the statistics, e.g. on logout
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+        lastServedAgeMillis = -1;
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.get(), misses.get(), size, lastServedAgeMillis);
+    }
+
+    private <T> void staleWhileRevalidate(String key, BiConsumer<Consumer<T>, Consumer<String>> fetch,
+                                          Consumer<T> onSuccess, Consumer<String> onError) {
+        CacheEntry<T> cached = get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            lastServedAgeMillis = System.currentTimeMillis() - cached.storedAtMillis();
+            onSuccess.accept(copy(cached.value()));
+        } else {
+            misses.incrementAndGet();
+        }
+
+        fetch.accept(fresh -> {
+            put(key, fresh);
+            if (cached == null || !fresh.equals(cached.value())) {
+                onSuccess.accept(fresh);
+            }
+        }, error -> {
+            if (cached == null) {
+                onError.accept(error);
+            } else {
+                log.warn("Revalidating {} failed, keeping the cached copy: {}", key, error);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CacheEntry<T> get(String key) {
+        synchronized (entries) {
+            CacheEntry<?> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - entry.storedAtMillis() > MAX_STALENESS.toMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return (CacheEntry<T>) entry;
+        }
+    }
+
+    private void put(String key, Object value) {
+        Object stored = copy(value);
+        synchronized (entries) {
+            entries.put(key, new CacheEntry<>(stored, System.currentTimeMillis()));
+        }
+    }
+
+    private void invalidate(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    private void invalidateFirstPages() {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> !key.startsWith(TICKET_KEY) && key.contains("cursor=null"));
+        }
+    }
+
+    // Applies a status change to every cached copy of the ticket, replacing the entries that hold it
+    private void patchStatus(UUID ticketId, TicketStatus status) {
+        synchronized (entries) {
+            for (Map.Entry<String, CacheEntry<?>> entry : entries.entrySet()) {
+                Object value = entry.getValue().value();
+                Object patched = value;
+                if (value instanceof TicketResponse ticket) {
+                    patched = patchStatus(ticket, ticketId, status);
+                } else if (value instanceof TicketListResponse list && list.getTickets() != null) {
+                    patched = list.toBuilder()
+                            .tickets(list.getTickets().stream().map(ticket -> patchStatus(ticket, ticketId, status)).toList())
+                            .build();
+                } else if (value instanceof PageResponse<?> page && page.getContent() != null) {
+                    patched = ticketPage(page).toBuilder()
+                            .content(ticketPage(page).getContent().stream().map(ticket -> patchStatus(ticket, ticketId, status)).toList())
+                            .build();
+                }
+                if (!patched.equals(value)) {
+                    entry.setValue(new CacheEntry<>(patched, entry.getValue().storedAtMillis()));
+                }
+            }
+        }
+    }
+
+    private TicketResponse patchStatus(TicketResponse ticket, UUID ticketId, TicketStatus status) {
+        return ticketId.equals(ticket.getId()) && ticket.getStatus() != status
+                ? ticket.toBuilder().status(status).build()
+                : ticket;
+    }
+
+    // Copies down to the tickets, the only objects callers or patches change
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(T value) {
+        if (value instanceof TicketResponse ticket) {
+            return (T) copyTicket(ticket);
+        }
+        if (value instanceof TicketListResponse list && list.getTickets() != null) {
+            return (T) list.toBuilder()
+                    .tickets(list.getTickets().stream().map(CachingTicketService::copyTicket).toList())
+                    .build();
+        }
+        if (value instanceof PageResponse<?> page && page.getContent() != null) {
+            return (T) ticketPage(page).toBuilder()
+                    .content(ticketPage(page).getContent().stream().map(CachingTicketService::copyTicket).toList())
+                    .build();
+        }
+        return value;
+    }
+
+    private static TicketResponse copyTicket(TicketResponse ticket) {
+        return ticket.toBuilder()
+                .last10Comments(ticket.getLast10Comments() != null ? new ArrayList<>(ticket.getLast10Comments()) : null)
+                .build();
+    }
+
+    // Only ticket pages are cached
+    @SuppressWarnings("unchecked")
+    private static PageResponse<TicketResponse> ticketPage(PageResponse<?> page) {
+        return (PageResponse<TicketResponse>) page;
+    }
+
+    private String listKey(String resource, String cursor, int size) {
+        return resource + "?cursor=" + cursor + "&size=" + size;
+    }
+}
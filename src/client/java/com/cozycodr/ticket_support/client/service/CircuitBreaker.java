@@ -0,0 +1,96 @@
+package com.cozycodr.ticket_support.client.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops sending requests to a server that keeps failing.
+ * <p>
+ * After {@code failureThreshold} failures in a row the breaker opens and requests fail
+ * immediately. Once the open period has passed, a single probe request is let through:
+ * its success closes the breaker, its failure opens it again. The open period is stretched
+ * by a random amount, so clients that tripped together do not all probe at the same moment.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilMillis;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @return true when a request may be sent, it must then be reported with
+     * {@link #onSuccess}, {@link #onFailure} or {@link #release}
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() < openUntilMillis) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            long jitter = ThreadLocalRandom.current().nextLong(openMillis / 5 + 1);
+            openUntilMillis = clock.getAsLong() + openMillis + jitter;
+        }
+    }
+
+    /**
+     * Reports a request that ended without an outcome, e.g. it was cancelled
+     */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return milliseconds until a probe is let through, 0 unless the breaker is open
+     */
+    public synchronized long remainingOpenMillis() {
+        return state == State.OPEN ? Math.max(0, openUntilMillis - clock.getAsLong()) : 0;
+    }
+}
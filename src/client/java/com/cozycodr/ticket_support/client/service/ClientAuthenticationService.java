@@ -5,57 +5,38 @@ import com.cozycodr.ticket_support.client.dto.AuthDataResponse;
 import com.cozycodr.ticket_support.client.dto.LoginRequest;
 import com.cozycodr.ticket_support.client.dto.RegistrationRequest;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.util.function.Consumer;
 
 @Slf4j
 @Service
 public class ClientAuthenticationService {
 
-    private final String apiBaseUrl;
-    private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    private static final TypeReference<ApiResponseBody<AuthDataResponse>> AUTH_DATA_TYPE = new TypeReference<>() {};
 
-    public ClientAuthenticationService(
-            @Value("${app.api.base-url}") String apiBaseUrl,
-            ObjectMapper objectMapper
-    ) {
-        this.apiBaseUrl = apiBaseUrl;
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = objectMapper;
+    private final ApiTransport transport;
+
+    public ClientAuthenticationService(ApiTransport transport) {
+        this.transport = transport;
     }
 
     public void register(RegistrationRequest request,
                          Consumer<AuthDataResponse> onSuccess,
                          Consumer<String> onError) {
         try {
-            String requestBody = objectMapper.writeValueAsString(request);
-
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(URI.create(apiBaseUrl + "/auth/register"))
+            HttpRequest httpRequest = transport.request("/auth/register")
                     .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                    .POST(transport.jsonBody(request))
                     .build();
 
-            httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
+            transport.send(httpRequest)
                     .thenAccept(response -> {
                         if (response.statusCode() == 201) {
                             try {
-                                // A type reference for the auth Response
-                                TypeReference<ApiResponseBody<AuthDataResponse>> authDataTypeRef = new TypeReference<>(){};
-
-                                ApiResponseBody<AuthDataResponse> authResponse = objectMapper.readValue(
-                                        response.body(),
-                                        authDataTypeRef
-                                );
+                                ApiResponseBody<AuthDataResponse> authResponse = transport.read(response.body(), AUTH_DATA_TYPE);
                                 if (authResponse.getData() != null) {
                                     onSuccess.accept(authResponse.getData());
                                 } else {
@@ -67,7 +48,7 @@ public class ClientAuthenticationService {
                                 onError.accept("Error parsing response: " + e.getMessage());
                             }
                         } else {
-                            log.error(requestBody);
+                            log.error("Registration failed: HTTP {}", response.statusCode());
                             onError.accept("Registration failed");
                         }
                     })
@@ -86,25 +67,16 @@ public class ClientAuthenticationService {
                       Consumer<AuthDataResponse> onSuccess,
                       Consumer<String> onError) {
         try {
-            String requestBody = objectMapper.writeValueAsString(request);
-
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(URI.create(apiBaseUrl + "/auth/login"))
+            HttpRequest httpRequest = transport.request("/auth/login")
                     .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                    .POST(transport.jsonBody(request))
                     .build();
 
-            httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
+            transport.send(httpRequest)
                     .thenAccept(response -> {
                         if (response.statusCode() == 200) {
                             try {
-                                // A type reference for the auth Response
-                                TypeReference<ApiResponseBody<AuthDataResponse>> authDataTypeRef = new TypeReference<>(){};
-
-                                ApiResponseBody<AuthDataResponse> authResponse = objectMapper.readValue(
-                                        response.body(),
-                                        authDataTypeRef
-                                );
+                                ApiResponseBody<AuthDataResponse> authResponse = transport.read(response.body(), AUTH_DATA_TYPE);
                                 if (authResponse.getData() != null) {
                                     onSuccess.accept(authResponse.getData());
                                 } else {
@@ -1,95 +1,76 @@
 package com.cozycodr.ticket_support.client.service;
 
-import com.cozycodr.ticket_support.client.config.ObjectMapperConfig;
 import com.cozycodr.ticket_support.client.dto.ApiResponseBody;
 import com.cozycodr.ticket_support.client.dto.PageResponse;
 import com.cozycodr.ticket_support.client.dto.comment.AddCommentRequest;
 import com.cozycodr.ticket_support.client.dto.comment.SingleCommentResponse;
 import com.cozycodr.ticket_support.client.dto.ticket.*;
 import com.cozycodr.ticket_support.client.enums.TicketStatus;
-import com.cozycodr.ticket_support.client.utils.AuthManager;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
+import java.net.URLEncoder;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class ClientTicketService {
 
-    private final ObjectMapper objectMapper;
-    private final HttpClient httpClient = HttpClient.newHttpClient();
-    private final AuthManager authManager;
-
-    @Value("${app.api.base-url}")
-    private String baseUrl;
+    private static final TypeReference<ApiResponseBody<TicketDataResponse<TicketListResponse>>> TICKET_LIST_TYPE =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseBody<TicketDataResponse<PageResponse<TicketResponse>>>> TICKET_PAGE_TYPE =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseBody<TicketResponse>> TICKET_TYPE =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseBody<SingleTicketResponse>> SINGLE_TICKET_TYPE =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseBody<SingleCommentResponse>> SINGLE_COMMENT_TYPE =
+            new TypeReference<>() {};
+
+    // One key per user action, retries of that action reuse it and the server answers them once
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_VALIDATED_RESPONSES = 64;
+
+    private final ApiTransport transport;
+
+    // Last 200 response and its ETag per GET path, reused when the server answers 304
+    private final Map<String, ApiTransport.ApiResponse> validatedResponses =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ApiTransport.ApiResponse> eldest) {
+                    return size() > MAX_VALIDATED_RESPONSES;
+                }
+            };
 
     @Autowired
-    public ClientTicketService (AuthManager authManager){
-        this.authManager = authManager;
-        this.objectMapper = ObjectMapperConfig.createObjectMapper();
+    public ClientTicketService(ApiTransport transport) {
+        this.transport = transport;
     }
 
     /**
-     * Fetch tickets created by a specific user.
+     * Fetch tickets created by the logged in user.
      * <p>
-     * This method calls the backend "/tickets/user" endpoint using the provided userId,
-     * along with pagination parameters.
+     * This method calls the backend "/tickets/user" endpoint with keyset pagination,
+     * the response carries the cursor of the following page.
      *
-     * @param page      The page number (starting from 1).
+     * @param cursor    The nextCursor of the previous page, null for the first page.
      * @param size      The number of tickets per page.
      * @param onSuccess Consumer that receives an array of TicketResponse objects on success.
      * @param onError   Consumer that receives an error message string if fetching fails.
      */
-    public void fetchMyTickets(int page, int size, Consumer<TicketListResponse> onSuccess, Consumer<String> onError) {
-        // Build the endpoint URL with pagination query parameters.
-        String url = String.format("%s/tickets/user?page=%d&size=%d", baseUrl, page, size);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Authorization", authManager.getAuthHeader())
-                .GET()
-                .build();
+    public void fetchMyTickets(String cursor, int size, Consumer<TicketListResponse> onSuccess, Consumer<String> onError) {
+        String path = String.format("/tickets/user?cursor=%s&size=%d", encodeCursor(cursor), size);
 
-        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenAccept(response -> {
-                    if(response.statusCode() == 200) {
-                        try {
-                            // response payload is wrapped in an ApiResponseBody,
-                            // and the actual data is in a field "data".
-                            TypeReference<ApiResponseBody<TicketDataResponse<TicketListResponse>>> ticketListTypeRef = new TypeReference<>() {};
-                            ApiResponseBody<TicketDataResponse<TicketListResponse>> body = objectMapper.readValue(response.body(), ticketListTypeRef);
-
-                            // Fetch Ticket List
-                            TicketListResponse ticketList = body.getData().getTickets();
-                            onSuccess.accept(ticketList);
-                        } catch(IOException e) {
-                            log.error("Error parsing tickets response", e);
-                            onError.accept("Error parsing tickets response: " + e.getMessage());
-                        }
-                    } else {
-                        onError.accept("Error fetching tickets: HTTP " + response.statusCode());
-                    }
-                })
-                .exceptionally(e -> {
-                    log.error("Exception during fetching tickets", e);
-                    onError.accept("Exception during fetching tickets: " + e.getMessage());
-                    return null;
-                });
+        transport.deliver(sendConditionalGet(path), 200, TICKET_LIST_TYPE, "fetching tickets",
+                data -> onSuccess.accept(data.getTickets()), onError);
     }
 
     /**
@@ -100,42 +81,15 @@ public class ClientTicketService {
      * @param onError          Consumer with an error message on failure.
      */
     public void createTicket(CreateTicketRequest requestBody, Consumer<TicketResponse> onSuccess, Consumer<String> onError) {
-        String url = baseUrl + "/tickets";
-
         try {
-            String requestJson = objectMapper.writeValueAsString(requestBody);
-
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Content-Type", "application/json")
-                .header("Authorization", authManager.getAuthHeader())
-                .POST(HttpRequest.BodyPublishers.ofString(requestJson))
-                .build();
-
-        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenAccept(response -> {
-                    if (response.statusCode() == 201) {
-                        try {
-                            TypeReference<ApiResponseBody<TicketResponse>> ticketTypeRef = new TypeReference<>() {};
-                            ApiResponseBody<TicketResponse> body = objectMapper.readValue(response.body(), ticketTypeRef);
+            HttpRequest request = transport.request("/tickets")
+                    .header("Content-Type", "application/json")
+                    .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                    .POST(transport.jsonBody(requestBody))
+                    .build();
 
-                            TicketResponse ticket = body.getData();
-                            onSuccess.accept(ticket);
-                        } catch (IOException e) {
-                            log.error("Error parsing create ticket response", e);
-                            onError.accept("Error parsing response: " + e.getMessage());
-                        }
-                    } else {
-                        onError.accept("Error creating ticket: HTTP " + response.statusCode());
-                    }
-                })
-                .exceptionally(e -> {
-                    log.error("Exception during creating ticket", e);
-                    onError.accept("Exception during creating ticket: " + e.getMessage());
-                    return null;
-                });
-        } catch (JsonProcessingException e) {
+            transport.deliver(transport.sendIdempotent(request), 201, TICKET_TYPE, "creating ticket", onSuccess, onError);
+        } catch (Exception e) {
             onError.accept("Error processing request: " + e.getMessage());
         }
     }
@@ -149,120 +103,41 @@ public class ClientTicketService {
      * @param onError   Consumer that receives an error message string on failure.
      */
     public void fetchTicketDetails(UUID ticketId, Consumer<TicketResponse> onSuccess, Consumer<String> onError) {
-        String url = String.format("%s/tickets/%s", baseUrl, ticketId);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Authorization", authManager.getAuthHeader())
-                .GET()
-                .build();
+        String path = String.format("/tickets/%s", ticketId);
 
-        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenAccept(response -> {
-                    if(response.statusCode() == 200) {
-                        try {
-                            TypeReference<ApiResponseBody<SingleTicketResponse>> ticketTypeRef = new TypeReference<>() {};
-                            ApiResponseBody<SingleTicketResponse> body = objectMapper.readValue(response.body(), ticketTypeRef);
-
-                            TicketResponse ticket = body.getData().getTicket();
-                            onSuccess.accept(ticket);
-                        } catch (IOException e) {
-                            log.error("Error parsing ticket details", e);
-                            onError.accept("Error parsing ticket details: " + e.getMessage());
-                        }
-                    } else {
-                        onError.accept("Error fetching ticket details: HTTP " + response.statusCode());
-                    }
-                })
-                .exceptionally(e -> {
-                    log.error("Exception during fetching ticket details", e);
-                    onError.accept("Exception during fetching ticket details: " + e.getMessage());
-                    return null;
-                });
+        transport.deliver(sendConditionalGet(path), 200, SINGLE_TICKET_TYPE, "fetching ticket details",
+                data -> onSuccess.accept(data.getTicket()), onError);
     }
 
     /**
-     * Fetch a paginated list of all tickets for IT Support.
+     * Fetch a page of all tickets for IT Support, using keyset pagination.
      *
-     * @param page      The page number (starting from 1).
+     * @param cursor    The nextCursor of the previous page, null for the first page.
      * @param size      The number of tickets per page.
      * @param onSuccess Consumer that receives a PageResponse of TicketResponse on success.
      * @param onError   Consumer that receives an error message on failure.
      */
-    public void fetchAllTickets(int page, int size, Consumer<PageResponse<TicketResponse>> onSuccess, Consumer<String> onError) {
-        String url = String.format("%s/tickets?page=%d&size=%d", baseUrl, page, size);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .header("Authorization", authManager.getAuthHeader())
-                .uri(URI.create(url))
-                .GET()
-                .build();
-
-        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenAccept(response -> {
-                    if(response.statusCode() == 200) {
-                        try {
-                            TypeReference<ApiResponseBody<TicketDataResponse<PageResponse<TicketResponse>>>> typeRef = new TypeReference<>(){};
-                            ApiResponseBody<TicketDataResponse<PageResponse<TicketResponse>>> body = objectMapper.readValue(response.body(), typeRef);
+    public void fetchAllTickets(String cursor, int size, Consumer<PageResponse<TicketResponse>> onSuccess, Consumer<String> onError) {
+        String path = String.format("/tickets?cursor=%s&size=%d", encodeCursor(cursor), size);
 
-                            PageResponse<TicketResponse> pageResponse = body.getData().getTickets();
-                            onSuccess.accept(pageResponse);
-                        } catch(IOException e) {
-                            log.error("Error parsing tickets page response", e);
-                            onError.accept("Error parsing tickets page response: " + e.getMessage());
-                        }
-                    } else {
-                        onError.accept("Error fetching tickets: HTTP " + response.statusCode());
-                    }
-                })
-                .exceptionally(e -> {
-                    log.error("Exception during fetching all tickets", e);
-                    onError.accept("Exception during fetching all tickets: " + e.getMessage());
-                    return null;
-                });
+        transport.deliver(sendConditionalGet(path), 200, TICKET_PAGE_TYPE, "fetching all tickets",
+                data -> onSuccess.accept(data.getTickets()), onError);
     }
 
     public void updateTicketStatus(UUID ticketId, TicketStatus newStatus,
                                    Consumer<TicketResponse> onSuccess,
                                    Consumer<String> onError) {
         try {
-            UpdateTicketStatusRequest request = new UpdateTicketStatusRequest();
-            request.setStatus(newStatus);
+            UpdateTicketStatusRequest body = new UpdateTicketStatusRequest();
+            body.setStatus(newStatus);
 
-            String jsonBody = objectMapper.writeValueAsString(request);
-            String url = String.format("%s/tickets/%s/status", baseUrl, ticketId);
-
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
+            HttpRequest request = transport.request(String.format("/tickets/%s/status", ticketId))
                     .header("Content-Type", "application/json")
-                    .header("Authorization", authManager.getAuthHeader())
-                    .method("PATCH", HttpRequest.BodyPublishers.ofString(jsonBody))
+                    .method("PATCH", transport.jsonBody(body))
                     .build();
 
-            httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
-                    .thenAccept(response -> {
-                        if (response.statusCode() == 200) {
-                            try {
-                                TypeReference<ApiResponseBody<SingleTicketResponse>> typeRef =
-                                        new TypeReference<>() {};
-                                ApiResponseBody<SingleTicketResponse> body =
-                                        objectMapper.readValue(response.body(), typeRef);
-
-                                onSuccess.accept(body.getData().getTicket());
-                            } catch (IOException e) {
-                                log.error("Error parsing status update response", e);
-                                onError.accept("Error parsing status update response: " + e.getMessage());
-                            }
-                        } else {
-                            onError.accept("Error updating ticket status: HTTP " + response.statusCode());
-                        }
-                    })
-                    .exceptionally(e -> {
-                        log.error("Exception during status update", e);
-                        onError.accept("Exception during status update: " + e.getMessage());
-                        return null;
-                    });
-
+            transport.exchange(request, 200, SINGLE_TICKET_TYPE, "updating ticket status",
+                    data -> onSuccess.accept(data.getTicket()), onError);
         } catch (Exception e) {
             log.error("Error preparing status update request", e);
             onError.accept("Error preparing status update request: " + e.getMessage());
@@ -273,46 +148,59 @@ public class ClientTicketService {
                            Consumer<SingleCommentResponse> onSuccess,
                            Consumer<String> onError) {
         try {
-            AddCommentRequest request = new AddCommentRequest();
-            request.setMessage(comment);
-
-            String jsonBody = objectMapper.writeValueAsString(request);
-            String url = String.format("%s/tickets/%s/comments", baseUrl, ticketId);
+            AddCommentRequest body = new AddCommentRequest();
+            body.setMessage(comment);
 
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
+            HttpRequest request = transport.request(String.format("/tickets/%s/comments", ticketId))
                     .header("Content-Type", "application/json")
-                    .header("Authorization", authManager.getAuthHeader())
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+                    .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                    .POST(transport.jsonBody(body))
                     .build();
 
-            httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
-                    .thenAccept(response -> {
-                        if (response.statusCode() == 201) {
-                            try {
-                                TypeReference<ApiResponseBody<SingleCommentResponse>> typeRef =
-                                        new TypeReference<>() {};
-                                ApiResponseBody<SingleCommentResponse> body =
-                                        objectMapper.readValue(response.body(), typeRef);
-
-                                onSuccess.accept(body.getData());
-                            } catch (IOException e) {
-                                log.error("Error parsing comment response", e);
-                                onError.accept("Error parsing comment response: " + e.getMessage());
-                            }
-                        } else {
-                            onError.accept("Error adding comment: HTTP " + response.statusCode());
-                        }
-                    })
-                    .exceptionally(e -> {
-                        log.error("Exception during comment addition", e);
-                        onError.accept("Exception during comment addition: " + e.getMessage());
-                        return null;
-                    });
-
+            transport.deliver(transport.sendIdempotent(request), 201, SINGLE_COMMENT_TYPE, "adding comment",
+                    onSuccess, onError);
         } catch (Exception e) {
             log.error("Error preparing comment request", e);
             onError.accept("Error preparing comment request: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // An empty cursor asks the server for the first page in keyset mode
+    private String encodeCursor(String cursor) {
+        return cursor == null ? "" : URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sends a GET revalidating the previous response for the same path. A 304 from the server
+     * is answered with the stored response, so callers only ever see 200 or an error status.
+     *
+     * @param path the resource to fetch
+     * @return the response
+     */
+    private CompletableFuture<ApiTransport.ApiResponse> sendConditionalGet(String path) {
+        ApiTransport.ApiResponse previous;
+        synchronized (validatedResponses) {
+            previous = validatedResponses.get(path);
+        }
+
+        HttpRequest.Builder request = transport.request(path).GET();
+        if (previous != null) {
+            request.header("If-None-Match", previous.headers().firstValue("ETag").orElseThrow());
+        }
+
+        return transport.sendIdempotent(request.build())
+                .thenApply(response -> {
+                    if (response.statusCode() == 304 && previous != null) {
+                        return previous;
+                    }
+                    synchronized (validatedResponses) {
+                        if (response.statusCode() == 200 && response.headers().firstValue("ETag").isPresent()) {
+                            validatedResponses.put(path, response);
+                        } else {
+                            validatedResponses.remove(path);
+                        }
+                    }
+                    return response;
+                });
+    }
+}
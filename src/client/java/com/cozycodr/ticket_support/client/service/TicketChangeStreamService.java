@@ -0,0 +1,243 @@
+package com.cozycodr.ticket_support.client.service;
+
+import com.cozycodr.ticket_support.client.dto.ticket.TicketChangeEvent;
+import com.cozycodr.ticket_support.client.utils.AuthManager;
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Keeps one long-lived connection to the server's ticket change stream (GET /tickets/stream).
+ * <p>
+ * Events are parsed on a background thread and handed to listeners on the EDT in batches:
+ * everything that arrived before the EDT got round to it is delivered in one call, so a
+ * burst of changes causes a single repaint. Dropped connections are reopened with the
+ * id of the last received event, so nothing is missed in between.
+ */
+@Slf4j
+@Service
+public class TicketChangeStreamService {
+
+    public interface TicketChangeListener {
+        /**
+         * Called on the EDT with the changes received since the previous call, oldest first
+         * @param events one or more ticket changes
+         */
+        void onTicketChanges(List<TicketChangeEvent> events);
+
+        /**
+         * Called on the EDT when the server could not replay the missed changes, current data must be refetched
+         */
+        void onResync();
+    }
+
+    private static final String RESYNC_EVENT = "RESYNC";
+    private static final TypeReference<TicketChangeEvent> EVENT_TYPE = new TypeReference<>() {};
+    private static final long MIN_RECONNECT_DELAY_MS = 1_000;
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    private final AuthManager authManager;
+    private final ApiTransport transport;
+    private final List<TicketChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Filled by the stream thread, drained on the EDT
+    private final List<TicketChangeEvent> pendingEvents = new ArrayList<>();
+    private boolean pendingResync;
+    private boolean flushScheduled;
+
+    private volatile Thread streamThread;
+    private volatile Stream<String> currentBody;
+    private volatile String lastEventId;
+
+    @Autowired
+    public TicketChangeStreamService(AuthManager authManager, ApiTransport transport) {
+        this.authManager = authManager;
+        this.transport = transport;
+    }
+
+    public void addListener(TicketChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TicketChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Opens the stream for the logged in user, replacing any stream that is already open
+     */
+    public synchronized void start() {
+        stop();
+        lastEventId = null;
+        Thread thread = new Thread(this::runStream, "ticket-change-stream");
+        thread.setDaemon(true);
+        streamThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Closes the stream, e.g. on logout
+     */
+    public synchronized void stop() {
+        Thread thread = streamThread;
+        streamThread = null;
+        if (thread != null) {
+            thread.interrupt();
+            Stream<String> body = currentBody;
+            if (body != null) {
+                body.close();
+            }
+        }
+    }
+
+    private void runStream() {
+        long reconnectDelay = MIN_RECONNECT_DELAY_MS;
+        while (streamThread == Thread.currentThread()) {
+            try {
+                HttpRequest.Builder request = HttpRequest.newBuilder()
+                        // No request timeout, the stream is meant to stay open
+                        .uri(transport.uri("/tickets/stream"))
+                        .header("Authorization", authManager.getAuthHeader())
+                        .header("Accept", "text/event-stream")
+                        .GET();
+                if (lastEventId != null) {
+                    request.header("Last-Event-ID", lastEventId);
+                }
+
+                HttpResponse<Stream<String>> response = transport.httpClient().send(request.build(), HttpResponse.BodyHandlers.ofLines());
+                if (response.statusCode() != 200) {
+                    response.body().close();
+                    log.warn("Ticket change stream refused: HTTP {}", response.statusCode());
+                } else {
+                    currentBody = response.body();
+                    reconnectDelay = MIN_RECONNECT_DELAY_MS;
+                    try (Stream<String> lines = response.body()) {
+                        readEvents(lines.iterator());
+                    }
+                    log.debug("Ticket change stream ended, reconnecting");
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (streamThread != Thread.currentThread()) {
+                    return;
+                }
+                log.debug("Ticket change stream dropped: {}", e.getMessage());
+            } finally {
+                currentBody = null;
+            }
+
+            try {
+                Thread.sleep(reconnectDelay);
+            } catch (InterruptedException e) {
+                return;
+            }
+            reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MS);
+        }
+    }
+
+    private void readEvents(Iterator<String> lines) {
+        String eventId = null;
+        String eventName = null;
+        StringBuilder data = new StringBuilder();
+
+        while (lines.hasNext() && streamThread == Thread.currentThread()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                // Blank line ends an event
+                if (eventName != null || !data.isEmpty()) {
+                    dispatch(eventId, eventName, data.toString());
+                }
+                eventId = null;
+                eventName = null;
+                data.setLength(0);
+            } else if (line.startsWith(":")) {
+                // Heartbeat comment
+                continue;
+            } else if (line.startsWith("id:")) {
+                eventId = fieldValue(line, 3);
+            } else if (line.startsWith("event:")) {
+                eventName = fieldValue(line, 6);
+            } else if (line.startsWith("data:")) {
+                if (!data.isEmpty()) {
+                    data.append('\n');
+                }
+                data.append(fieldValue(line, 5));
+            }
+        }
+    }
+
+    private String fieldValue(String line, int prefixLength) {
+        String value = line.substring(prefixLength);
+        return value.startsWith(" ") ? value.substring(1) : value;
+    }
+
+    private void dispatch(String eventId, String eventName, String data) {
+        if (RESYNC_EVENT.equals(eventName)) {
+            // The refetch covers everything up to this id, a reconnect continues from there
+            if (eventId != null) {
+                lastEventId = eventId;
+            }
+            enqueue(null, true);
+            return;
+        }
+        try {
+            TicketChangeEvent event = transport.read(data, EVENT_TYPE);
+            if (eventId != null) {
+                lastEventId = eventId;
+            }
+            enqueue(event, false);
+        } catch (IOException e) {
+            log.error("Error parsing ticket change event {}", eventName, e);
+        }
+    }
+
+    private void enqueue(TicketChangeEvent event, boolean resync) {
+        synchronized (pendingEvents) {
+            if (resync) {
+                // A refetch supersedes anything still waiting
+                pendingResync = true;
+                pendingEvents.clear();
+            } else {
+                pendingEvents.add(event);
+            }
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        SwingUtilities.invokeLater(this::flushToListeners);
+    }
+
+    private void flushToListeners() {
+        List<TicketChangeEvent> events;
+        boolean resync;
+        synchronized (pendingEvents) {
+            events = new ArrayList<>(pendingEvents);
+            resync = pendingResync;
+            pendingEvents.clear();
+            pendingResync = false;
+            flushScheduled = false;
+        }
+
+        for (TicketChangeListener listener : listeners) {
+            if (resync) {
+                listener.onResync();
+            }
+            if (!events.isEmpty()) {
+                listener.onTicketChanges(events);
+            }
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.cozycodr.ticket_support.client.swing.frames;
 import com.cozycodr.ticket_support.client.dto.AuthDataResponse;
 import com.cozycodr.ticket_support.client.dto.LoginRequest;
 import com.cozycodr.ticket_support.client.event.ApplicationEvent;
+import com.cozycodr.ticket_support.client.service.CachingTicketService;
 import com.cozycodr.ticket_support.client.service.ClientAuthenticationService;
 import com.cozycodr.ticket_support.client.service.EventBusService;
+import com.cozycodr.ticket_support.client.service.TicketChangeStreamService;
 import com.cozycodr.ticket_support.client.swing.panels.auth.LoginPanel;
 import com.cozycodr.ticket_support.client.swing.panels.auth.SignupPanel;
 import com.cozycodr.ticket_support.client.swing.panels.general.MainViewPanel;
+import com.cozycodr.ticket_support.client.swing.panels.general.StatusBarPanel;
 import com.cozycodr.ticket_support.client.swing.panels.ticket.MyTicketsPanel;
 import com.cozycodr.ticket_support.client.utils.AuthManager;
 import com.cozycodr.ticket_support.client.utils.DialogUtils;
@@ -19,9 +22,6 @@ import org.springframework.stereotype.Component;
 
 import javax.swing.*;
 import java.awt.*;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 
 @Component
 public class ApplicationFrame extends JFrame {
@@ -37,25 +37,30 @@ public class ApplicationFrame extends JFrame {
     private final ClientAuthenticationService authService;
     private final AuthManager authManager;
     private final EventBusService eventBus;
-    private final JLabel clockLabel;
+    private final TicketChangeStreamService ticketChangeStream;
+    private final CachingTicketService ticketCache;
+    private final StatusBarPanel statusBarPanel;
 
     @Autowired
     public ApplicationFrame(LoginPanel loginPanel, SignupPanel signupPanel, MainViewPanel mainViewPanel,
                             EventBusService eventBus, ClientAuthenticationService authService,
-                            AuthManager authManager, MyTicketsPanel myTicketsPanel
+                            AuthManager authManager, MyTicketsPanel myTicketsPanel,
+                            TicketChangeStreamService ticketChangeStream, CachingTicketService ticketCache,
+                            StatusBarPanel statusBarPanel
     ) {
         this.loginPanel = loginPanel;
         this.signupPanel = signupPanel;
         this.mainViewPanel = mainViewPanel;
         this.myTicketsPanel = myTicketsPanel;
         this.eventBus = eventBus;
+        this.ticketChangeStream = ticketChangeStream;
         this.authService = authService;
         this.cardLayout = new CardLayout();
         this.mainCardPanel = new JPanel(cardLayout);
-        this.clockLabel = new JLabel();
+        this.ticketCache = ticketCache;
+        this.statusBarPanel = statusBarPanel;
         this.authManager = authManager;
         initializeUI();
-        setupClock();
         setupEventListeners();
     }
 
@@ -98,7 +103,7 @@ public class ApplicationFrame extends JFrame {
         mainCardPanel.add(mainViewPanel, "MAIN");
 
         add(mainCardPanel, "grow, wrap");
-        add(clockLabel, "dock south, right, gapright 10");
+        add(statusBarPanel, "dock south");
 
         cardLayout.show(mainCardPanel, "LOGIN");
         setLocationRelativeTo(null);
@@ -124,6 +129,9 @@ public class ApplicationFrame extends JFrame {
 
                     // Show main view
                     cardLayout.show(mainCardPanel, "MAIN");
+                    statusBarPanel.setCurrentUser(response.getUsername());
+                    statusBarPanel.setConnectionStatus(true);
+                    ticketChangeStream.start();
                 }),
                 errorMessage -> SwingUtilities.invokeLater(() ->
                         DialogUtils.showErrorDialog(this, errorMessage, "Login Error"))
@@ -134,22 +142,19 @@ public class ApplicationFrame extends JFrame {
         mainViewPanel.setCurrentUser(user.getUsername());
         mainViewPanel.updateUserRole(user.getRole());
         cardLayout.show(mainCardPanel, "MAIN");
-    }
-
-    private void setupClock() {
-        clockLabel.setFont(new Font("Monospaced", Font.PLAIN, 12));
-        clockLabel.setForeground(Color.GRAY);
-        Timer clockTimer = new Timer(1000, e -> {
-            LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            clockLabel.setText("UTC: " + utcNow.format(formatter));
-        });
-        clockTimer.start();
+        statusBarPanel.setCurrentUser(user.getUsername());
+        statusBarPanel.setConnectionStatus(true);
+        ticketChangeStream.start();
     }
 
     public void logout() {
         currentUser = null;
+        ticketChangeStream.stop();
+        // Cached tickets belong to the user that is logging out
+        ticketCache.clear();
         authManager.setAuthToken(null);
+        statusBarPanel.setCurrentUser("Not logged in");
+        statusBarPanel.setConnectionStatus(false);
         cardLayout.show(mainCardPanel, "LOGIN");
         loginPanel.resetFields(); // Add this method to LoginPanel if not exists
 
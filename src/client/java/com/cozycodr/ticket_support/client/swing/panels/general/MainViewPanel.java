@@ -45,7 +45,8 @@ public class MainViewPanel extends JPanel {
                 cardLayout.show(cardPanel, MY_TICKETS_CARD);
                 currentCard = MY_TICKETS_CARD;
                 if (currentUsername != null) {
-                    myTicketsPanel.refreshTickets(currentUsername);
+                    // Already loaded tickets are kept current by the change stream
+                    myTicketsPanel.ensureTicketsLoaded(currentUsername);
                 }
             } else if (CREATE_TICKET_CARD.equals(navItem)) {
                 cardLayout.show(cardPanel, CREATE_TICKET_CARD);
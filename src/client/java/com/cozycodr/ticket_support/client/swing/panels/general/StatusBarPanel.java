@@ -1,5 +1,8 @@
 package com.cozycodr.ticket_support.client.swing.panels.general;
 
+import com.cozycodr.ticket_support.client.service.ApiTransport;
+import com.cozycodr.ticket_support.client.service.CachingTicketService;
+import com.cozycodr.ticket_support.client.service.CircuitBreaker;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import net.miginfocom.swing.MigLayout;
@@ -17,10 +20,16 @@ public class StatusBarPanel extends JPanel {
     private final JLabel clockLabel;
     private final JLabel userLabel;
     private final JLabel connectionLabel;
+    private final JLabel cacheLabel;
+    private final CachingTicketService ticketCache;
+    private final ApiTransport transport;
     private Timer clockTimer;
+    private boolean connected;
 
-    public StatusBarPanel() {
-        setLayout(new MigLayout("fillx, insets 5", "[100!][200!]push[100!]", "[]"));
+    public StatusBarPanel(CachingTicketService ticketCache, ApiTransport transport) {
+        this.ticketCache = ticketCache;
+        this.transport = transport;
+        setLayout(new MigLayout("fillx, insets 5", "[100!][200!]push[][100!]", "[]"));
         setPreferredSize(new Dimension(0, 30));
         setBackground(new Color(245, 245, 245));
         setBorder(BorderFactory.createMatteBorder(1, 0, 0, 0, new Color(220, 220, 220)));
@@ -36,6 +45,10 @@ public class StatusBarPanel extends JPanel {
         connectionLabel.setFont(monoFont);
         connectionLabel.setForeground(Color.RED);
 
+        cacheLabel = new JLabel();
+        cacheLabel.setFont(monoFont);
+        cacheLabel.setForeground(Color.DARK_GRAY);
+
         clockLabel = new JLabel();
         clockLabel.setFont(monoFont);
         clockLabel.setForeground(Color.DARK_GRAY);
@@ -49,15 +62,21 @@ public class StatusBarPanel extends JPanel {
         // Add components with proper constraints
         add(userContainer, "left");
         add(connectionLabel, "center");
+        add(cacheLabel, "right, gapright 20");
         add(clockLabel, "right");
 
         startClock();
     }
 
     private void startClock() {
-        clockTimer = new Timer(1000, e -> updateClock());
+        clockTimer = new Timer(1000, e -> {
+            updateClock();
+            updateCacheStats();
+            updateTransportStats();
+        });
         clockTimer.start();
         updateClock();
+        updateCacheStats();
     }
 
     private void updateClock() {
@@ -66,6 +85,45 @@ public class StatusBarPanel extends JPanel {
         clockLabel.setText("UTC: " + utcNow.format(formatter));
     }
 
+    private void updateCacheStats() {
+        CachingTicketService.CacheStats stats = ticketCache.stats();
+        if (stats.hits() + stats.misses() == 0) {
+            cacheLabel.setText("Cache: -");
+            return;
+        }
+        String age = stats.lastServedAgeMillis() >= 0
+                ? ", age " + (stats.lastServedAgeMillis() / 1000) + "s"
+                : "";
+        cacheLabel.setText(String.format("Cache: %.0f%% hits (%d/%d)%s",
+                stats.hitRate() * 100, stats.hits(), stats.hits() + stats.misses(), age));
+    }
+
+    // Shown as the connection tooltip, for diagnosing a slow or flaky network
+    private void updateTransportStats() {
+        ApiTransport.TransportStats stats = transport.stats();
+        connectionLabel.setToolTipText(String.format(
+                "Requests: %d (%d failed, %d retried, %d hedged, %d rejected), latency avg %.0f ms / max %d ms, " +
+                        "received %d KB (%d KB decoded), sent %d KB",
+                stats.requests(), stats.failures(), stats.retries(), stats.hedges(), stats.rejected(),
+                stats.averageLatencyMillis(), stats.maxLatencyMillis(),
+                stats.bytesReceived() / 1024, stats.bytesDecoded() / 1024, stats.bytesSent() / 1024));
+        updateConnectionLabel();
+    }
+
+    private void updateConnectionLabel() {
+        CircuitBreaker.State circuitState = transport.circuitState();
+        if (circuitState == CircuitBreaker.State.OPEN) {
+            connectionLabel.setText("Server unavailable");
+            connectionLabel.setForeground(Color.RED);
+        } else if (circuitState == CircuitBreaker.State.HALF_OPEN) {
+            connectionLabel.setText("Reconnecting...");
+            connectionLabel.setForeground(new Color(180, 120, 40));
+        } else {
+            connectionLabel.setText(connected ? "Connected" : "Disconnected");
+            connectionLabel.setForeground(connected ? new Color(0, 120, 0) : Color.RED);
+        }
+    }
+
     public void setCurrentUser(String username) {
         userLabel.setText(username);
         log.info(username, "status update", "Updated status bar user");
@@ -76,8 +134,8 @@ public class StatusBarPanel extends JPanel {
     }
 
     public void setConnectionStatus(boolean connected) {
-        connectionLabel.setText(connected ? "Connected" : "Disconnected");
-        connectionLabel.setForeground(connected ? new Color(0, 120, 0) : Color.RED);
+        this.connected = connected;
+        updateConnectionLabel();
     }
 
     @PreDestroy
@@ -2,9 +2,12 @@ package com.cozycodr.ticket_support.client.swing.panels.ticket;
 
 import com.cozycodr.ticket_support.client.dto.AuthDataResponse;
 import com.cozycodr.ticket_support.client.dto.PageResponse;
+import com.cozycodr.ticket_support.client.dto.ticket.TicketChangeEvent;
 import com.cozycodr.ticket_support.client.dto.ticket.TicketListResponse;
 import com.cozycodr.ticket_support.client.dto.ticket.TicketResponse;
-import com.cozycodr.ticket_support.client.service.ClientTicketService;
+import com.cozycodr.ticket_support.client.enums.TicketStatus;
+import com.cozycodr.ticket_support.client.service.CachingTicketService;
+import com.cozycodr.ticket_support.client.service.TicketChangeStreamService;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import net.miginfocom.swing.MigLayout;
@@ -15,41 +18,48 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 
 @Slf4j
 @Component
-public class MyTicketsPanel extends JPanel {
+public class MyTicketsPanel extends JPanel implements TicketChangeStreamService.TicketChangeListener {
 
-    private final ClientTicketService ticketService;
-    private final JPanel ticketsListPanel;
+    private static final String TICKETS_LIST = "TICKETS_LIST";
+    private static final String TICKET_DETAILS = "TICKET_DETAILS";
+    private static final int PAGE_SIZE = 100;
+    // Next page is requested when fewer rows than this are left below the viewport
+    private static final int PREFETCH_ROWS = 20;
+
+    private final CachingTicketService ticketService;
     private final CardLayout cardLayout;
     private final JPanel contentPanel;
     private final TicketDetailsPanel ticketDetailsPanel;
+    private final TicketListModel ticketListModel = new TicketListModel();
+    private final JList<TicketResponse> ticketList = new JList<>(ticketListModel);
+    private final JScrollPane ticketScrollPane = new JScrollPane(ticketList);
+    private final JLabel listStatusLabel = new JLabel();
     private AuthDataResponse currentUser;
+    private String loadedForUsername;
 
-    private static final String TICKETS_LIST = "TICKETS_LIST";
-    private static final String TICKET_DETAILS = "TICKET_DETAILS";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    // Paging state, only touched on the EDT
+    private String requestedCursor;
+    private String nextCursor;
+    private boolean hasMorePages;
+    private boolean pageLoading;
+    // Bumped on every refresh so pages requested for an earlier list are dropped
+    private int listGeneration;
 
     @Autowired
-    public MyTicketsPanel(ClientTicketService ticketService) {
+    public MyTicketsPanel(CachingTicketService ticketService, TicketChangeStreamService ticketChangeStream) {
         this.ticketService = ticketService;
+        ticketChangeStream.addListener(this);
         this.cardLayout = new CardLayout();
         this.contentPanel = new JPanel(cardLayout);
-
-        // Use a more specific MigLayout configuration
-        this.ticketsListPanel = new JPanel(new MigLayout(
-                "fillx, insets 10, wrap 1", // Layout constraints
-                "[grow]", // Column constraints
-                "[]10[]" // Row constraints
-        ));
-
         this.ticketDetailsPanel = new TicketDetailsPanel(ticketService);
 
-        // Set preferred size
-//        setPreferredSize(new Dimension(600, 400));
-
         initializeUI();
     }
 
@@ -66,14 +76,18 @@ public class MyTicketsPanel extends JPanel {
         headerLabel.setFont(new Font("Arial", Font.BOLD, 20));
         headerPanel.add(headerLabel, "cell 0 0");
 
-        // Initialize the panels
-        ticketsListPanel.setBackground(Color.WHITE);
-        JScrollPane scrollPane = new JScrollPane(ticketsListPanel);
-        scrollPane.setBorder(BorderFactory.createEmptyBorder());
-        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
+        initializeTicketList();
+
+        JPanel listPanel = new JPanel(new BorderLayout());
+        listPanel.setBackground(Color.WHITE);
+        listStatusLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        listStatusLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        listStatusLabel.setVisible(false);
+        listPanel.add(listStatusLabel, BorderLayout.NORTH);
+        listPanel.add(ticketScrollPane, BorderLayout.CENTER);
 
         // Add components to content panel
-        contentPanel.add(scrollPane, TICKETS_LIST);
+        contentPanel.add(listPanel, TICKETS_LIST);
         contentPanel.add(ticketDetailsPanel, TICKET_DETAILS);
 
         // Important: Show the tickets list by default
@@ -83,22 +97,72 @@ public class MyTicketsPanel extends JPanel {
         add(headerPanel, BorderLayout.NORTH);
         add(contentPanel, BorderLayout.CENTER);
 
-        // Configure back button handler
-        ticketDetailsPanel.setOnBackPressed(unused -> {
-            cardLayout.show(contentPanel, TICKETS_LIST);
-            refreshTickets(currentUser.getUsername());
-        });
+        // Configure back button handler, the list is kept current by the change stream
+        ticketDetailsPanel.setOnBackPressed(unused -> cardLayout.show(contentPanel, TICKETS_LIST));
 
         // Force initial layout
         revalidate();
         repaint();
     }
 
+    private void initializeTicketList() {
+        ticketList.setCellRenderer(new TicketListCellRenderer());
+        ticketList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        ticketList.setBackground(Color.WHITE);
+
+        // Fixed cell sizes keep the list from measuring every row on each change. The prototype
+        // sets the row height, the small width lets rows follow the viewport width.
+        ticketList.setPrototypeCellValue(TicketResponse.builder()
+                .id(UUID.randomUUID())
+                .title("Prototype")
+                .status(TicketStatus.NEW)
+                .createdDate(LocalDateTime.now())
+                .build());
+        ticketList.setFixedCellWidth(100);
+
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverIndex(rowAt(e.getPoint()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverIndex(-1);
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = rowAt(e.getPoint());
+                if (index >= 0) {
+                    showTicketDetails(ticketListModel.getElementAt(index));
+                }
+            }
+        };
+        ticketList.addMouseListener(mouseHandler);
+        ticketList.addMouseMotionListener(mouseHandler);
+
+        ticketScrollPane.setBorder(BorderFactory.createEmptyBorder());
+        ticketScrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
+        ticketScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        ticketScrollPane.getVerticalScrollBar().addAdjustmentListener(e -> loadMoreIfNearEnd());
+    }
+
     public void setCurrentUser(AuthDataResponse user) {
         this.currentUser = user;
         this.ticketDetailsPanel.setCurrentUser(user);
     }
 
+    /**
+     * Loads the tickets unless they are already on display for this user
+     * @param username the logged in user
+     */
+    public void ensureTicketsLoaded(String username) {
+        if (!username.equals(loadedForUsername)) {
+            refreshTickets(username);
+        }
+    }
+
     public void refreshTickets(String username) {
         if (currentUser == null) {
             log.warn("Attempted to refresh tickets without user context");
@@ -108,208 +172,210 @@ public class MyTicketsPanel extends JPanel {
         log.debug("Refreshing tickets for user: {} with role: {}",
                 username, currentUser.getRole());
 
-        ticketsListPanel.removeAll();
+        loadedForUsername = username;
+        listGeneration++;
+        ticketListModel.clear();
+        ticketList.putClientProperty(TicketListCellRenderer.HOVER_INDEX_PROPERTY, -1);
+        requestedCursor = null;
+        nextCursor = null;
+        hasMorePages = true;
+        pageLoading = false;
+
+        showListStatus("Loading tickets...", Font.ITALIC, Color.BLACK);
+        loadNextPage();
+    }
+
+    private void loadMoreIfNearEnd() {
+        if (pageLoading || !hasMorePages || loadedForUsername == null) {
+            return;
+        }
+        int lastVisible = ticketList.getLastVisibleIndex();
+        if (lastVisible >= ticketListModel.getSize() - PREFETCH_ROWS) {
+            loadNextPage();
+        }
+    }
 
-        // Add loading indicator
-        JLabel loadingLabel = new JLabel("Loading tickets...");
-        loadingLabel.setFont(new Font("Arial", Font.ITALIC, 14));
-        ticketsListPanel.add(loadingLabel, "wrap");
-        ticketsListPanel.revalidate();
-        ticketsListPanel.repaint();
+    private void loadNextPage() {
+        pageLoading = true;
+        int generation = listGeneration;
+        String cursor = nextCursor;
+        requestedCursor = cursor;
 
         if (currentUser.isItSupport()) {
-            log.info("Fetching all tickets for IT Support user");
-            ticketService.fetchAllTickets(1, 50,
-                    response -> {
-                        log.debug("Received all tickets response");
-                        handleTicketsResponse(response);
-                    },
+            log.debug("Fetching all tickets page, cursor: {}", cursor);
+            ticketService.fetchAllTickets(cursor, PAGE_SIZE,
+                    response -> handleTicketsResponse(generation, cursor, response),
                     error -> {
                         log.error("Error fetching all tickets: {}", error);
-                        handleError(error);
+                        handleError(generation, error);
                     });
         } else {
-            log.info("Fetching user tickets for: {}", username);
-            ticketService.fetchMyTickets(1, 50,
-                    response -> {
-                        log.debug("Received user tickets response");
-                        handleUserTicketsResponse(response);
-                    },
+            log.debug("Fetching user tickets page, cursor: {}", cursor);
+            ticketService.fetchMyTickets(cursor, PAGE_SIZE,
+                    response -> handleUserTicketsResponse(generation, cursor, response),
                     error -> {
                         log.error("Error fetching user tickets: {}", error);
-                        handleError(error);
+                        handleError(generation, error);
                     });
         }
     }
 
-    private void handleTicketsResponse(PageResponse<TicketResponse> response) {
-        log.debug("Handling all tickets response: {}", response); // Add logging
-        SwingUtilities.invokeLater(() -> {
-            ticketsListPanel.removeAll();
-
-            if (response == null || response.getContent() == null || response.getContent().isEmpty()) {
-                log.debug("No tickets found in all tickets response");
-                addNoTicketsLabel(currentUser.getUsername());
-            } else {
-                log.debug("Adding {} tickets to panel", response.getContent().size());
-                for (TicketResponse ticket : response.getContent()) {
-                    addTicketPanel(ticket);
-                    log.debug("Added ticket: {}", ticket.getId());
-                }
-            }
+    private void handleTicketsResponse(int generation, String requestCursor, PageResponse<TicketResponse> response) {
+        SwingUtilities.invokeLater(() -> mergePage(generation, requestCursor,
+                response != null ? response.getContent() : null,
+                response != null ? response.getNextCursor() : null));
+    }
 
-            ticketsListPanel.revalidate();
-            ticketsListPanel.repaint();
-        });
+    private void handleUserTicketsResponse(int generation, String requestCursor, TicketListResponse response) {
+        SwingUtilities.invokeLater(() -> mergePage(generation, requestCursor,
+                response != null ? response.getTickets() : null,
+                response != null ? response.getNextCursor() : null));
     }
 
-    private void handleUserTicketsResponse(TicketListResponse response) {
-        log.debug("Handling user tickets response: {}", response); // Add logging
-        SwingUtilities.invokeLater(() -> {
-            ticketsListPanel.removeAll();
-
-            if (response == null || response.getTickets() == null || response.getTickets().isEmpty()) {
-                log.debug("No tickets found in user tickets response");
-                addNoTicketsLabel(currentUser.getUsername());
-            } else {
-                log.debug("Adding {} tickets to panel", response.getTickets().size());
-                for (TicketResponse ticket : response.getTickets()) {
-                    addTicketPanel(ticket);
-                    log.debug("Added ticket: {}", ticket.getId());
-                }
-            }
+    /**
+     * Merges a page into the list. A page can arrive twice, first from the cache and then
+     * revalidated, and by then later pages may have been requested already. Only the most
+     * recently requested page moves the paging position.
+     */
+    private void mergePage(int generation, String requestCursor, List<TicketResponse> tickets, String cursor) {
+        if (generation != listGeneration) {
+            return;
+        }
+        if (Objects.equals(requestCursor, requestedCursor)) {
+            pageLoading = false;
+            nextCursor = cursor;
+            hasMorePages = cursor != null;
+        }
 
-            ticketsListPanel.revalidate();
-            ticketsListPanel.repaint();
-        });
+        if (tickets != null && !tickets.isEmpty()) {
+            log.debug("Merging {} tickets into list", tickets.size());
+            ticketListModel.mergePage(tickets, requestCursor == null);
+        }
+        if (ticketListModel.isTruncated()) {
+            // Dropped rows leave no cursor to continue from, older tickets need a refresh
+            hasMorePages = false;
+        }
+        updateEmptyStatus();
+
+        // The rows may not fill the viewport yet, in which case no scroll event would follow
+        SwingUtilities.invokeLater(this::loadMoreIfNearEnd);
     }
 
-    private void handleError(String error) {
+    private void handleError(int generation, String error) {
         SwingUtilities.invokeLater(() -> {
-            ticketsListPanel.removeAll();
-            addErrorLabel(error);
-            ticketsListPanel.revalidate();
-            ticketsListPanel.repaint();
+            if (generation != listGeneration) {
+                return;
+            }
+            // Errors only reach here for pages that were not served from cache
+            pageLoading = false;
+            if (ticketListModel.getSize() == 0) {
+                // Nothing usable on display, retry on the next navigation
+                loadedForUsername = null;
+            }
+            // Stop paging until the next refresh instead of retrying on every scroll
+            hasMorePages = false;
+            showListStatus("Error loading tickets: " + error, Font.PLAIN, new Color(220, 53, 69));
         });
     }
 
     private void showTicketDetails(TicketResponse ticket) {
+        // List rows are summaries without description or comments, show them while the details load
         ticketDetailsPanel.displayTicket(ticket);
         cardLayout.show(contentPanel, TICKET_DETAILS);
+
+        ticketService.fetchTicketDetails(ticket.getId(),
+                details -> SwingUtilities.invokeLater(() -> displayIfStillShown(details)),
+                error -> log.error("Error fetching ticket details: {}", error));
     }
 
-    private void addTicketPanel(TicketResponse ticket) {
-        try {
-            JPanel ticketPanel = createTicketPanel(ticket);
-            ticketsListPanel.add(ticketPanel, "growx, wrap, gapbottom 10");
-            log.debug("Successfully added ticket panel for ticket ID: {}", ticket.getId());
-        } catch (Exception e) {
-            log.error("Error adding ticket panel for ticket: {}", ticket.getId(), e);
+    // A revalidated copy can arrive after the user moved on to another ticket
+    private void displayIfStillShown(TicketResponse details) {
+        if (details.getId().equals(ticketDetailsPanel.getDisplayedTicketId())) {
+            ticketDetailsPanel.displayTicket(details);
         }
     }
 
-
-    private JPanel createTicketPanel(TicketResponse ticket) {
-        try {
-            JPanel panel = new JPanel(new MigLayout("fillx, insets 15", "[grow][]", "[]5[]"));
-            panel.setBackground(Color.WHITE);
-            panel.setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createLineBorder(new Color(220, 220, 220)),
-                    BorderFactory.createEmptyBorder(0, 0, 0, 0)
-            ));
-
-            // Add hover effect
-            panel.addMouseListener(new MouseAdapter() {
-                @Override
-                public void mouseEntered(MouseEvent e) {
-                    panel.setBackground(new Color(248, 249, 250));
-                    panel.setCursor(new Cursor(Cursor.HAND_CURSOR));
+    @Override
+    public void onTicketChanges(List<TicketChangeEvent> events) {
+        if (currentUser == null) {
+            return;
+        }
+        for (TicketChangeEvent event : events) {
+            switch (event.getType()) {
+                case TICKET_CREATED -> {
+                    if (event.getTicket() != null && loadedForUsername != null) {
+                        ticketListModel.addFirst(event.getTicket());
+                        hasMorePages &= !ticketListModel.isTruncated();
+                    }
                 }
-
-                @Override
-                public void mouseExited(MouseEvent e) {
-                    panel.setBackground(Color.WHITE);
+                case TICKET_STATUS_CHANGED -> {
+                    TicketResponse ticket = ticketListModel.find(event.getTicketId());
+                    if (ticket != null) {
+                        ticketListModel.replace(ticket.toBuilder().status(event.getStatus()).build());
+                    }
                 }
-
-                @Override
-                public void mouseClicked(MouseEvent e) {
-                    showTicketDetails(ticket);
+                default -> {
+                    // Comments are not shown in the list
                 }
-            });
-
-            // Ticket number and title
-            String titleText = String.format("#%s %s",
-                    ticket.getId() != null ? ticket.getId().toString() : "N/A",
-                    ticket.getTitle() != null ? ticket.getTitle() : "Untitled");
-            JLabel titleLabel = new JLabel(titleText);
-            titleLabel.setFont(new Font("Arial", Font.BOLD, 14));
-            panel.add(titleLabel, "wrap");
-
-            // Status and date on one line
-            JPanel metaPanel = new JPanel(new MigLayout("insets 0", "[grow][]", "[]"));
-            metaPanel.setOpaque(false);
-
-            if (ticket.getStatus() != null) {
-                JLabel statusLabel = createStatusLabel(ticket.getStatus().toString());
-                metaPanel.add(statusLabel);
-            }
-
-            // Handle date safely
-            if (ticket.getCreatedDate() != null) {
-                JLabel dateLabel = new JLabel(ticket.getCreatedDate().format(DATE_FORMATTER));
-                dateLabel.setForeground(Color.GRAY);
-                dateLabel.setFont(new Font("Arial", Font.PLAIN, 12));
-                metaPanel.add(dateLabel, "align right");
             }
+            ticketDetailsPanel.applyChange(event);
+        }
+        if (!pageLoading) {
+            updateEmptyStatus();
+        }
+    }
 
-            panel.add(metaPanel, "growx");
+    @Override
+    public void onResync() {
+        if (currentUser == null) {
+            return;
+        }
+        refreshTickets(currentUser.getUsername());
+        UUID displayedTicketId = ticketDetailsPanel.getDisplayedTicketId();
+        if (displayedTicketId != null) {
+            ticketService.fetchTicketDetails(displayedTicketId,
+                    details -> SwingUtilities.invokeLater(() -> displayIfStillShown(details)),
+                    error -> log.error("Error refetching ticket details: {}", error));
+        }
+    }
 
-            return panel;
-        } catch (Exception e) {
-            log.error("Error creating ticket panel for ticket ID: {}",
-                    ticket != null ? ticket.getId() : "null", e);
-            // Return a simple error panel instead of failing
-            JPanel errorPanel = new JPanel(new BorderLayout());
-            errorPanel.add(new JLabel("Error displaying ticket"), BorderLayout.CENTER);
-            return errorPanel;
+    private int rowAt(Point point) {
+        int index = ticketList.locationToIndex(point);
+        if (index < 0 || !ticketList.getCellBounds(index, index).contains(point)) {
+            return -1;
         }
+        return index;
     }
 
-    private JLabel createStatusLabel(String status) {
-        JLabel label = new JLabel(status);
-        label.setFont(new Font("Arial", Font.BOLD, 12));
-        label.setOpaque(true);
-        label.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
-
-        switch (status) {
-            case "OPEN":
-                label.setBackground(new Color(220, 245, 220));
-                label.setForeground(new Color(40, 120, 40));
-                break;
-            case "IN_PROGRESS":
-                label.setBackground(new Color(255, 245, 220));
-                label.setForeground(new Color(180, 120, 40));
-                break;
-            case "CLOSED":
-                label.setBackground(new Color(240, 240, 240));
-                label.setForeground(new Color(80, 80, 80));
-                break;
+    private void setHoverIndex(int index) {
+        Object previous = ticketList.getClientProperty(TicketListCellRenderer.HOVER_INDEX_PROPERTY);
+        if (Integer.valueOf(index).equals(previous)) {
+            return;
         }
+        ticketList.putClientProperty(TicketListCellRenderer.HOVER_INDEX_PROPERTY, index);
+        ticketList.setCursor(index >= 0 ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+        repaintRow(previous instanceof Integer previousIndex ? previousIndex : -1);
+        repaintRow(index);
+    }
 
-        return label;
+    private void repaintRow(int index) {
+        if (index >= 0 && index < ticketListModel.getSize()) {
+            ticketList.repaint(ticketList.getCellBounds(index, index));
+        }
     }
 
-    private void addNoTicketsLabel(String username) {
-        JLabel label = new JLabel("No tickets found for: " + username);
-        label.setFont(new Font("Arial", Font.PLAIN, 14));
-        label.setForeground(Color.GRAY);
-        ticketsListPanel.add(label, "wrap, gaptop 20");
+    private void updateEmptyStatus() {
+        if (ticketListModel.getSize() == 0) {
+            showListStatus("No tickets found for: " + currentUser.getUsername(), Font.PLAIN, Color.GRAY);
+        } else {
+            listStatusLabel.setVisible(false);
+        }
     }
 
-    private void addErrorLabel(String errorMessage) {
-        JLabel label = new JLabel("Error loading tickets: " + errorMessage);
-        label.setFont(new Font("Arial", Font.PLAIN, 14));
-        label.setForeground(new Color(220, 53, 69));
-        ticketsListPanel.add(label, "wrap");
+    private void showListStatus(String message, int fontStyle, Color color) {
+        listStatusLabel.setText(message);
+        listStatusLabel.setFont(new Font("Arial", fontStyle, 14));
+        listStatusLabel.setForeground(color);
+        listStatusLabel.setVisible(true);
     }
-}
\ No newline at end of file
+}
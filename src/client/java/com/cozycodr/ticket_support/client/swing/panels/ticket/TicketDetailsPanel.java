@@ -1,14 +1,19 @@
 package com.cozycodr.ticket_support.client.swing.panels.ticket;
 
 import com.cozycodr.ticket_support.client.dto.AuthDataResponse;
+import com.cozycodr.ticket_support.client.dto.comment.CommentResponse;
+import com.cozycodr.ticket_support.client.dto.ticket.TicketChangeEvent;
 import com.cozycodr.ticket_support.client.dto.ticket.TicketResponse;
 import com.cozycodr.ticket_support.client.enums.TicketStatus;
-import com.cozycodr.ticket_support.client.service.ClientTicketService;
+import com.cozycodr.ticket_support.client.service.CachingTicketService;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
 import java.awt.*;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 import java.util.function.Consumer;
 
 public class TicketDetailsPanel extends JPanel {
@@ -22,15 +27,20 @@ public class TicketDetailsPanel extends JPanel {
     private final JComboBox<TicketStatus> statusComboBox;
     private final JTextArea commentArea;
     private final JButton submitCommentButton;
-    private final ClientTicketService ticketService;
+    private final JPanel commentsListPanel;
+    private final CachingTicketService ticketService;
     private AuthDataResponse currentUser;
     private TicketResponse currentTicket;
     private Consumer<Void> onBackPressed;
+    // Set while the combo box is synced from server data, so it does not send a status update back
+    private boolean syncingStatus;
+
+    private static final int MAX_COMMENTS_SHOWN = 10;
 
     private static final DateTimeFormatter DATE_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    public TicketDetailsPanel(ClientTicketService ticketService) {
+    public TicketDetailsPanel(CachingTicketService ticketService) {
         this.ticketService = ticketService;
         setLayout(new MigLayout("fillx, insets 20", "[grow]", "[]10[]10[]10[]10[]10[]10[]"));
         setBackground(Color.WHITE);
@@ -56,6 +66,9 @@ public class TicketDetailsPanel extends JPanel {
         submitCommentButton = new JButton("Add Comment");
         submitCommentButton.setEnabled(false);
 
+        commentsListPanel = new JPanel(new MigLayout("fillx, insets 0, wrap 1", "[grow]", "[]5[]"));
+        commentsListPanel.setOpaque(false);
+
         initializeUI();
     }
 
@@ -83,6 +96,8 @@ public class TicketDetailsPanel extends JPanel {
         add(descriptionLabel, "wrap, gapbottom 20");
 
         // Comments section
+        add(new JLabel("Comments"), "wrap");
+        add(commentsListPanel, "wrap, growx, gapbottom 20");
         add(new JLabel("Add Comment"), "wrap");
         add(new JScrollPane(commentArea), "wrap, growx");
         add(submitCommentButton, "wrap");
@@ -100,7 +115,7 @@ public class TicketDetailsPanel extends JPanel {
 
         // Configure status change handler
         statusComboBox.addActionListener(e -> {
-            if (currentTicket != null && statusComboBox.isVisible()) {
+            if (currentTicket != null && statusComboBox.isVisible() && !syncingStatus) {
                 updateTicketStatus((TicketStatus) statusComboBox.getSelectedItem());
             }
         });
@@ -123,7 +138,7 @@ public class TicketDetailsPanel extends JPanel {
                                 "Failed to update status: " + error,
                                 "Error",
                                 JOptionPane.ERROR_MESSAGE);
-                        statusComboBox.setSelectedItem(currentTicket.getStatus());
+                        syncStatusComboBox();
                     })
             );
         }
@@ -166,7 +181,9 @@ public class TicketDetailsPanel extends JPanel {
         this.currentTicket = ticket;
 
         titleLabel.setText(String.format("#%s %s", ticket.getId().toString(), ticket.getTitle()));
-        descriptionLabel.setText("<html>" + ticket.getDescription() + "</html>");
+        descriptionLabel.setText(ticket.getDescription() != null
+                ? "<html>" + ticket.getDescription() + "</html>"
+                : "Loading...");
         updateStatusDisplay();
         priorityLabel.setText("Priority: " + ticket.getPriority());
         categoryLabel.setText("Category: " + ticket.getCategory());
@@ -178,14 +195,87 @@ public class TicketDetailsPanel extends JPanel {
         }
         createdAtLabel.setText(dateText);
 
-        if (currentUser != null && currentUser.isItSupport()) {
-            statusComboBox.setSelectedItem(ticket.getStatus());
+        syncStatusComboBox();
+        renderComments();
+
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * @return id of the ticket on display, or null when none is
+     */
+    public UUID getDisplayedTicketId() {
+        return currentTicket != null ? currentTicket.getId() : null;
+    }
+
+    /**
+     * Patches the ticket on display with a change received from the server
+     * @param event a ticket change, ignored when it is about another ticket
+     */
+    public void applyChange(TicketChangeEvent event) {
+        if (currentTicket == null || !currentTicket.getId().equals(event.getTicketId())) {
+            return;
         }
 
+        switch (event.getType()) {
+            case TICKET_STATUS_CHANGED -> {
+                // A copy, the list may still hold the instance that was put on display
+                currentTicket = currentTicket.toBuilder().status(event.getStatus()).build();
+                updateStatusDisplay();
+                syncStatusComboBox();
+            }
+            case COMMENT_ADDED -> {
+                List<CommentResponse> comments = new ArrayList<>();
+                comments.add(event.getComment());
+                if (currentTicket.getLast10Comments() != null) {
+                    currentTicket.getLast10Comments().stream()
+                            .filter(c -> !c.getId().equals(event.getComment().getId()))
+                            .limit(MAX_COMMENTS_SHOWN - 1)
+                            .forEach(comments::add);
+                }
+                currentTicket = currentTicket.toBuilder().last10Comments(comments).build();
+                renderComments();
+            }
+            default -> {
+                return;
+            }
+        }
         revalidate();
         repaint();
     }
 
+    private void renderComments() {
+        commentsListPanel.removeAll();
+        List<CommentResponse> comments = currentTicket.getLast10Comments();
+        if (comments == null || comments.isEmpty()) {
+            JLabel emptyLabel = createStyledLabel("No comments yet", new Font("Arial", Font.ITALIC, 12));
+            emptyLabel.setForeground(Color.GRAY);
+            commentsListPanel.add(emptyLabel);
+            return;
+        }
+        for (CommentResponse comment : comments) {
+            String author = comment.getCommenter() != null ? comment.getCommenter().getUsername() : "Unknown";
+            String date = comment.getCreatedDate() != null ? comment.getCreatedDate().format(DATE_FORMATTER) : "";
+            JLabel metaLabel = createStyledLabel(author + "  " + date, new Font("Arial", Font.ITALIC, 12));
+            metaLabel.setForeground(Color.GRAY);
+            commentsListPanel.add(metaLabel);
+            commentsListPanel.add(createStyledLabel("<html>" + comment.getMessage() + "</html>",
+                    new Font("Arial", Font.PLAIN, 14)), "growx, gapbottom 5");
+        }
+    }
+
+    private void syncStatusComboBox() {
+        if (currentTicket != null && currentUser != null && currentUser.isItSupport()) {
+            syncingStatus = true;
+            try {
+                statusComboBox.setSelectedItem(currentTicket.getStatus());
+            } finally {
+                syncingStatus = false;
+            }
+        }
+    }
+
     private void updateStatusDisplay() {
         if (currentTicket != null) {
             statusLabel.setText("Status: " + currentTicket.getStatus());
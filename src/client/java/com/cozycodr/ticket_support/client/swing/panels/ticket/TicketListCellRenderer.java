@@ -0,0 +1,85 @@
+package com.cozycodr.ticket_support.client.swing.panels.ticket;
+
+import com.cozycodr.ticket_support.client.dto.ticket.TicketResponse;
+import com.cozycodr.ticket_support.client.enums.TicketStatus;
+import net.miginfocom.swing.MigLayout;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Paints one ticket row. A single instance is reused for every visible row, so the list
+ * costs the same whatever the number of tickets loaded.
+ */
+class TicketListCellRenderer extends JPanel implements ListCellRenderer<TicketResponse> {
+
+    // Client property of the list holding the index of the row under the mouse
+    static final String HOVER_INDEX_PROPERTY = "ticketList.hoverIndex";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final Color HOVER_BACKGROUND = new Color(248, 249, 250);
+
+    private final JLabel titleLabel = new JLabel();
+    private final JLabel statusLabel = new JLabel();
+    private final JLabel dateLabel = new JLabel();
+
+    TicketListCellRenderer() {
+        super(new MigLayout("fillx, insets 15", "[grow][]", "[]5[]"));
+        setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createEmptyBorder(0, 10, 10, 10),
+                BorderFactory.createLineBorder(new Color(220, 220, 220))
+        ));
+
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        add(titleLabel, "span 2, wrap");
+
+        statusLabel.setFont(new Font("Arial", Font.BOLD, 12));
+        statusLabel.setOpaque(true);
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
+        add(statusLabel);
+
+        dateLabel.setForeground(Color.GRAY);
+        dateLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+        add(dateLabel, "align right");
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends TicketResponse> list, TicketResponse ticket,
+                                                  int index, boolean isSelected, boolean cellHasFocus) {
+        Object hoverIndex = list.getClientProperty(HOVER_INDEX_PROPERTY);
+        setBackground(Integer.valueOf(index).equals(hoverIndex) ? HOVER_BACKGROUND : Color.WHITE);
+
+        titleLabel.setText(String.format("#%s %s",
+                ticket.getId() != null ? ticket.getId().toString() : "N/A",
+                ticket.getTitle() != null ? ticket.getTitle() : "Untitled"));
+
+        if (ticket.getStatus() != null) {
+            statusLabel.setVisible(true);
+            applyStatusStyle(ticket.getStatus());
+        } else {
+            statusLabel.setVisible(false);
+        }
+
+        dateLabel.setText(ticket.getCreatedDate() != null ? ticket.getCreatedDate().format(DATE_FORMATTER) : "");
+        return this;
+    }
+
+    private void applyStatusStyle(TicketStatus status) {
+        statusLabel.setText(status.toString());
+        switch (status) {
+            case NEW -> {
+                statusLabel.setBackground(new Color(220, 245, 220));
+                statusLabel.setForeground(new Color(40, 120, 40));
+            }
+            case IN_PROGRESS -> {
+                statusLabel.setBackground(new Color(255, 245, 220));
+                statusLabel.setForeground(new Color(180, 120, 40));
+            }
+            case RESOLVED -> {
+                statusLabel.setBackground(new Color(240, 240, 240));
+                statusLabel.setForeground(new Color(80, 80, 80));
+            }
+        }
+    }
+}
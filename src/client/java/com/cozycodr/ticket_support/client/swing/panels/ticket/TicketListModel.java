@@ -0,0 +1,184 @@
+package com.cozycodr.ticket_support.client.swing.panels.ticket;
+
+import com.cozycodr.ticket_support.client.dto.ticket.TicketResponse;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ticket rows of the tickets list, newest first. Rows only exist as data, the list paints
+ * the visible ones with a single renderer. Must only be used on the EDT.
+ * <p>
+ * Rows are added at both ends, new tickets at the top and further pages at the bottom. Every
+ * row gets a slot that stays fixed while it is listed, negative for rows pushed on top and
+ * counting up from zero for rows appended, so its index is its slot plus the number of rows
+ * pushed on top. Lookups by id and inserts at either end cost the same at any size. At most
+ * {@link #MAX_ROWS} rows are kept; beyond that the oldest rows are dropped and the list is
+ * marked truncated, so paging stops instead of growing memory without bound.
+ */
+class TicketListModel extends AbstractListModel<TicketResponse> {
+
+    static final int MAX_ROWS = 10_000;
+
+    // Slots -1, -2, ... from the top row upwards, in that order
+    private final List<TicketResponse> head = new ArrayList<>();
+    // Slots 0, 1, ... downwards
+    private final List<TicketResponse> tail = new ArrayList<>();
+    private final Map<UUID, Integer> slotsById = new HashMap<>();
+    private boolean truncated;
+
+    @Override
+    public int getSize() {
+        return head.size() + tail.size();
+    }
+
+    @Override
+    public TicketResponse getElementAt(int index) {
+        return index < head.size() ? head.get(head.size() - 1 - index) : tail.get(index - head.size());
+    }
+
+    public boolean contains(UUID ticketId) {
+        return slotsById.containsKey(ticketId);
+    }
+
+    /**
+     * @return whether rows were dropped or the row limit was reached, the list can no longer
+     *         be paged further and needs a refresh to show older tickets
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Merges a page of tickets into the list. Rows already listed are replaced when the page
+     * has newer data, e.g. a revalidated copy of a page shown from cache. New rows are
+     * appended, or inserted at the top for the first page, where newly created tickets appear.
+     * @param page tickets in list order
+     * @param firstPage whether this is the first page of the list
+     */
+    public void mergePage(List<TicketResponse> page, boolean firstPage) {
+        List<TicketResponse> newRows = new ArrayList<>();
+        for (TicketResponse ticket : page) {
+            if (contains(ticket.getId())) {
+                replace(ticket);
+            } else {
+                newRows.add(ticket);
+            }
+        }
+        if (newRows.isEmpty()) {
+            return;
+        }
+
+        if (firstPage) {
+            // Pushed bottom-up, so the page keeps its order above the current top row
+            for (int i = newRows.size() - 1; i >= 0; i--) {
+                pushFirst(newRows.get(i));
+            }
+            fireIntervalAdded(this, 0, newRows.size() - 1);
+            trimToLimit();
+        } else {
+            int room = MAX_ROWS - getSize();
+            if (room < newRows.size()) {
+                truncated = true;
+            }
+            int added = Math.min(room, newRows.size());
+            if (added <= 0) {
+                return;
+            }
+            int firstIndex = getSize();
+            for (TicketResponse ticket : newRows.subList(0, added)) {
+                slotsById.put(ticket.getId(), tail.size());
+                tail.add(ticket);
+            }
+            fireIntervalAdded(this, firstIndex, firstIndex + added - 1);
+        }
+    }
+
+    public void addFirst(TicketResponse ticket) {
+        if (!contains(ticket.getId())) {
+            pushFirst(ticket);
+            fireIntervalAdded(this, 0, 0);
+            trimToLimit();
+        }
+    }
+
+    /**
+     * Replaces the row of a ticket with a changed copy, rows are never edited in place
+     * @param ticket the new row, ignored when the ticket is not listed or unchanged
+     */
+    public void replace(TicketResponse ticket) {
+        Integer slot = slotsById.get(ticket.getId());
+        if (slot == null) {
+            return;
+        }
+        TicketResponse listed = slot < 0 ? head.get(-slot - 1) : tail.get(slot);
+        if (listed.equals(ticket)) {
+            return;
+        }
+        if (slot < 0) {
+            head.set(-slot - 1, ticket);
+        } else {
+            tail.set(slot, ticket);
+        }
+        int index = slot + head.size();
+        fireContentsChanged(this, index, index);
+    }
+
+    public TicketResponse find(UUID ticketId) {
+        Integer slot = slotsById.get(ticketId);
+        if (slot == null) {
+            return null;
+        }
+        return slot < 0 ? head.get(-slot - 1) : tail.get(slot);
+    }
+
+    public void clear() {
+        int size = getSize();
+        head.clear();
+        tail.clear();
+        slotsById.clear();
+        truncated = false;
+        if (size > 0) {
+            fireIntervalRemoved(this, 0, size - 1);
+        }
+    }
+
+    private void pushFirst(TicketResponse ticket) {
+        head.add(ticket);
+        slotsById.put(ticket.getId(), -head.size());
+    }
+
+    // Drops the oldest rows, at the bottom, once new tickets pushed the list past the limit
+    private void trimToLimit() {
+        int excess = getSize() - MAX_ROWS;
+        if (excess <= 0) {
+            return;
+        }
+        if (tail.size() < excess) {
+            rebase();
+        }
+        for (int i = 0; i < excess; i++) {
+            slotsById.remove(tail.remove(tail.size() - 1).getId());
+        }
+        truncated = true;
+        fireIntervalRemoved(this, MAX_ROWS, MAX_ROWS + excess - 1);
+    }
+
+    // Moves all rows to the tail, so the oldest rows can be dropped without shifting slots
+    private void rebase() {
+        List<TicketResponse> rows = new ArrayList<>(getSize());
+        for (int i = 0; i < getSize(); i++) {
+            rows.add(getElementAt(i));
+        }
+        head.clear();
+        tail.clear();
+        for (TicketResponse ticket : rows) {
+            slotsById.put(ticket.getId(), tail.size());
+            tail.add(ticket);
+        }
+    }
+}
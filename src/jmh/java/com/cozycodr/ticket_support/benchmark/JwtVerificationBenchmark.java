@@ -0,0 +1,87 @@
+package com.cozycodr.ticket_support.benchmark;
+
+import com.cozycodr.ticket_support.model.entity.User;
+import com.cozycodr.ticket_support.model.enums.Role;
+import com.cozycodr.ticket_support.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of verifying a bearer token.
+ * <ul>
+ *     <li>{@code previousPerRequest} is what the auth filter used to do: rebuild the key and
+ *     parser for every parse and parse the token twice in isTokenValid</li>
+ *     <li>{@code sharedParser} is a single parse with the parser built at startup</li>
+ *     <li>{@code verifiedTokenCache} is a repeat request served from the verified-token cache</li>
+ *     <li>{@code verifiedTokenCacheContended} is the same with 8 request threads reading the
+ *     cache at once, as the auth filter does under load</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET_KEY, TimeUnit.HOURS.toMillis(1), 10_000, 300);
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .firstName("Bench")
+                .lastName("Mark")
+                .username("bench.mark")
+                .role(Role.EMPLOYEE)
+                .build();
+        token = jwtService.generateToken(user);
+        jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    public boolean previousPerRequest() {
+        String username = parseWithFreshParser(token).getSubject();
+        Date expiration = parseWithFreshParser(token).getExpiration();
+        return username != null && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return jwtService.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims verifiedTokenCache() {
+        return jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Claims verifiedTokenCacheContended() {
+        return jwtService.verifyToken(token);
+    }
+
+    private static Claims parseWithFreshParser(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
+                .build()
+                .parseClaimsJws(token.trim())
+                .getBody();
+    }
+}
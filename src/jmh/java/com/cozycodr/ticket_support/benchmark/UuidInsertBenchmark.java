@@ -0,0 +1,111 @@
+package com.cozycodr.ticket_support.benchmark;
+
+import com.cozycodr.ticket_support.helpers.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput into a table keyed by a UUID primary key, comparing random
+ * version 4 ids with time-ordered version 7 ids. The table is prefilled and keeps
+ * growing across iterations, so random ids spread writes over the whole index.
+ * <p>
+ * Runs against in-memory H2 by default. Point jdbcUrl, user and password at a
+ * PostgreSQL or Oracle instance to measure the real database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"RANDOM_V4", "TIME_ORDERED_V7"})
+    public String generator;
+
+    @Param("jdbc:h2:mem:uuid-insert;DB_CLOSE_DELAY=-1")
+    public String jdbcUrl;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    @Param("200000")
+    public int prefillRows;
+
+    private Supplier<UUID> ids;
+    private boolean rawIds;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ids = "TIME_ORDERED_V7".equals(generator) ? UuidV7::randomUuid : UUID::randomUUID;
+        connection = DriverManager.getConnection(jdbcUrl, user, password);
+        connection.setAutoCommit(false);
+        // Oracle has no UUID type, ids are stored as RAW(16) like the entity tables
+        rawIds = jdbcUrl.startsWith("jdbc:oracle");
+        String idType = rawIds ? "RAW(16)" : "UUID";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE uuid_insert_bench (id " + idType + " NOT NULL PRIMARY KEY, payload VARCHAR(255))");
+        }
+        insert = connection.prepareStatement("INSERT INTO uuid_insert_bench (id, payload) VALUES (?, ?)");
+        for (int i = 0; i < prefillRows; i += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatchOfRows() throws SQLException {
+        insertBatch();
+    }
+
+    private void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            UUID id = ids.get();
+            if (rawIds) {
+                insert.setBytes(1, ByteBuffer.allocate(16)
+                        .putLong(id.getMostSignificantBits())
+                        .putLong(id.getLeastSignificantBits())
+                        .array());
+            } else {
+                insert.setObject(1, id);
+            }
+            insert.setString(2, "Ticket description placeholder");
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE uuid_insert_bench");
+        }
+        connection.commit();
+        insert.close();
+        connection.close();
+    }
+}
@@ -1,6 +1,6 @@
 package com.cozycodr.ticket_support.config;
 
-import com.cozycodr.ticket_support.repository.UserRepository;
+import com.cozycodr.ticket_support.service.UserIdentityCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,20 +21,20 @@ import java.util.ArrayList;
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
 
     @Bean
     UserDetailsService userDetailsService() {
-        UserRepository userRepositoryRef = userRepository;
+        UserIdentityCache userIdentityCacheRef = userIdentityCache;
 
         return (username) -> {
 
-            var user = userRepositoryRef.findByUsername(username);
+            var user = userIdentityCacheRef.findByUsername(username);
 
             if (user.isPresent()){
                 return new User(
-                        user.get().getUsername(),
-                        user.get().getPassword(),
+                        user.get().username(),
+                        user.get().passwordHash(),
                         true,
                         true,
                         true,
@@ -1,6 +1,10 @@
 package com.cozycodr.ticket_support.config;
 
+import com.cozycodr.ticket_support.model.dto.auth.AuthenticatedUser;
+import com.cozycodr.ticket_support.model.dto.auth.UserIdentity;
 import com.cozycodr.ticket_support.service.JwtService;
+import com.cozycodr.ticket_support.service.UserIdentityCache;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -11,8 +15,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,7 +26,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserIdentityCache userIdentityCache;
 
     @Override
     protected void doFilterInternal(
@@ -42,16 +44,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
         try {
-            final String username = jwtService.extractUsername(jwt);
+            // Verifies signature and expiry in a single parse, repeat tokens are served from cache
+            final Claims claims = jwtService.verifyToken(jwt);
+            final String username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                AuthenticatedUser principal = jwtService.extractAuthenticatedUser(claims);
+                if (principal == null) {
+                    // Tokens issued before the id and role claims existed still need one lookup
+                    principal = userIdentityCache.findByUsername(username)
+                            .map(UserIdentity::toAuthenticatedUser)
+                            .orElse(null);
+                }
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            principal.getAuthorities()
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
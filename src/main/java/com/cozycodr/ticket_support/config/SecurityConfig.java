@@ -1,5 +1,6 @@
 package com.cozycodr.ticket_support.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,6 +34,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(auth -> auth
+                        // The request was authorized on its first dispatch, async completion of streams re-dispatches
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("health").permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/public/**", "/public/**").permitAll()
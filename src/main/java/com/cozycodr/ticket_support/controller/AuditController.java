@@ -0,0 +1,47 @@
+package com.cozycodr.ticket_support.controller;
+
+import com.cozycodr.ticket_support.helpers.ApiResponseBody;
+import com.cozycodr.ticket_support.model.dto.PageResponse;
+import com.cozycodr.ticket_support.model.dto.audit.AuditEventResponse;
+import com.cozycodr.ticket_support.model.enums.AuditEventType;
+import com.cozycodr.ticket_support.service.AuditLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/audit")
+@RequiredArgsConstructor
+@Tag(name = "Audit", description = "Audit event query APIs")
+public class AuditController {
+
+    private final AuditLogService auditLogService;
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "IT Support query audit events",
+            description = "Fetches audit events for IT Support, newest first, filtered by ticket, actor, event type and time range. " +
+                    "Pass `nextCursor` from the previous page as `cursor` to continue"
+    )
+    public ResponseEntity<ApiResponseBody<PageResponse<AuditEventResponse>>> getAuditEvents(
+            @RequestParam(name = "ticketId", required = false) UUID ticketId,
+            @RequestParam(name = "actorId", required = false) UUID actorId,
+            @RequestParam(name = "eventType", required = false) AuditEventType eventType,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size
+    ){
+        return auditLogService.getAuditEvents(ticketId, actorId, eventType, from, to, cursor, size);
+    }
+}
@@ -3,77 +3,187 @@ package com.cozycodr.ticket_support.controller;
 import com.cozycodr.ticket_support.helpers.ApiResponseBody;
 import com.cozycodr.ticket_support.model.dto.*;
 import com.cozycodr.ticket_support.model.dto.comments.AddCommentRequest;
+import com.cozycodr.ticket_support.model.dto.comments.CommentResponse;
 import com.cozycodr.ticket_support.model.dto.comments.SingleCommentResponse;
 import com.cozycodr.ticket_support.model.dto.ticket.*;
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketFileFormat;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import com.cozycodr.ticket_support.service.IdempotencyService;
+import com.cozycodr.ticket_support.service.TicketBulkStatusService;
+import com.cozycodr.ticket_support.service.TicketChangeBroadcaster;
+import com.cozycodr.ticket_support.service.TicketExportService;
 import com.cozycodr.ticket_support.service.TicketService;
+import com.cozycodr.ticket_support.service.TicketStatsService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+import static com.cozycodr.ticket_support.helpers.SecurityHelpers.currentUser;
+import static com.cozycodr.ticket_support.service.IdempotencyService.IDEMPOTENCY_KEY_HEADER;
+
 @RestController
 @RequestMapping("/tickets")
 @RequiredArgsConstructor
 @Tag(name = "Tickets", description = "Ticket management APIs")
 public class TicketController {
 
+    private static final TypeReference<ApiResponseBody<TicketResponse>> TICKET_RESPONSE_TYPE = new TypeReference<>() {};
+    private static final TypeReference<ApiResponseBody<SingleCommentResponse>> COMMENT_RESPONSE_TYPE = new TypeReference<>() {};
+
     private final TicketService ticketService;
+    private final TicketChangeBroadcaster ticketChangeBroadcaster;
+    private final IdempotencyService idempotencyService;
+    private final TicketExportService ticketExportService;
+    private final TicketBulkStatusService ticketBulkStatusService;
+    private final TicketStatsService ticketStatsService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(
             summary = "Create a new ticket",
-            description = "Creates a new support ticket with the provided details"
+            description = "Creates a new support ticket with the provided details. Retrying with the same " +
+                    "`Idempotency-Key` returns the first response instead of creating another ticket"
     )
     public ResponseEntity<ApiResponseBody<TicketResponse>> createTicket(
             @Valid @RequestBody CreateTicketRequest request,
-            @RequestHeader("Authorization") String authHeader
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     ){
-        return ticketService.createTicket(request, authHeader);
+        return idempotencyService.execute(idempotencyKey, "POST /tickets", request, TICKET_RESPONSE_TYPE,
+                () -> ticketService.createTicket(request));
     }
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     @Operation(
             summary = "IT Support GET tickets",
-            description = "Fetches paginated tickets for IT Support"
+            description = "Fetches paginated tickets for IT Support. Passing `cursor` (empty for the first page) " +
+                    "switches to keyset pagination and returns `nextCursor` instead of page totals. `status`, `priority`, " +
+                    "`category`, `raisedBy` and the `createdFrom`/`createdTo` range narrow the list, each only when given. " +
+                    "Supports `If-None-Match`"
     )
-    public ResponseEntity<ApiResponseBody<TicketDataResponse<PageResponse<TicketResponse>>>> getTickets(
+    public ResponseEntity<ApiResponseBody<TicketDataResponse<PageResponse<TicketSummaryResponse>>>> getTickets(
             @RequestParam(name = "page", defaultValue = "1") int page,
-            @RequestParam(name = "size", defaultValue = "10") int size
+            @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "status", required = false) TicketStatus status,
+            @RequestParam(name = "priority", required = false) TicketPriority priority,
+            @RequestParam(name = "category", required = false) TicketCategory category,
+            @RequestParam(name = "raisedBy", required = false) UUID raisedBy,
+            @RequestParam(name = "createdFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(name = "createdTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ){
+        TicketFilter filter = new TicketFilter(status, priority, category, raisedBy, createdFrom, createdTo);
+        if (cursor != null) {
+            return ticketService.getTickets(filter, cursor, size, ifNoneMatch);
+        }
+        return ticketService.getTickets(filter, page, size, ifNoneMatch);
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export tickets",
+            description = "Streams tickets oldest first as NDJSON, one ticket with its comments per line, or as CSV, " +
+                    "one row per comment. Filtered by status, category and creation time range. IT Support " +
+                    "exports all tickets, employees their own"
+    )
+    public ResponseEntity<StreamingResponseBody> exportTickets(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "status", required = false) TicketStatus status,
+            @RequestParam(name = "category", required = false) TicketCategory category,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "comments", defaultValue = "true") boolean includeComments
+    ){
+        return ticketExportService.exportTickets(TicketFileFormat.from(format), status, category, from, to, includeComments);
+    }
+
+    @GetMapping("/stats")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "IT Support ticket statistics",
+            description = "Ticket counts per status, priority and category, and per status and category. " +
+                    "Served from in-memory counters that are reconciled with the database periodically"
+    )
+    public ResponseEntity<ApiResponseBody<TicketStatsResponse>> getTicketStats(){
+        return ticketStatsService.getTicketStats();
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream ticket changes",
+            description = "Server-Sent Events stream of TICKET_CREATED, TICKET_STATUS_CHANGED and COMMENT_ADDED " +
+                    "events. Employees receive changes to their own tickets, IT Support receives all. Reconnect " +
+                    "with `Last-Event-ID` to resume, a RESYNC event means missed changes must be refetched"
+    )
+    public SseEmitter streamTicketChanges(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
     ){
-        return ticketService.getTickets(page, size);
+        return ticketChangeBroadcaster.subscribe(currentUser(), lastEventId);
     }
 
     @GetMapping("/{ticketId}")
     @ResponseStatus(HttpStatus.OK)
     @Operation(
             summary = "Get Ticket By Id",
-            description = "Fetches ticket by its ID"
+            description = "Fetches ticket by its ID. Responses carry an `ETag`, sending it back in " +
+                    "`If-None-Match` returns 304 Not Modified while the ticket and its comments are unchanged"
     )
     public ResponseEntity<ApiResponseBody<SingleTicketResponse>> getTicketById(
-            @PathVariable(name = "ticketId") UUID ticketId
+            @PathVariable(name = "ticketId") UUID ticketId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ){
-        return ticketService.getTicketById(ticketId);
+        return ticketService.getTicketById(ticketId, ifNoneMatch);
+    }
+
+    @GetMapping("/{ticketId}/comments")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Get Ticket Comments",
+            description = "Fetches comments of a ticket newest first. Pass `nextCursor` from the previous page " +
+                    "as `cursor` to page further back"
+    )
+    public ResponseEntity<ApiResponseBody<PageResponse<CommentResponse>>> getTicketComments(
+            @PathVariable("ticketId") UUID ticketId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "20") int limit
+    ){
+        return ticketService.getTicketComments(ticketId, cursor, limit);
     }
 
     @PostMapping("/{ticketId}/comments")
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(
             summary = "Add Comment",
-            description = "Adds new comment to ticket"
+            description = "Adds new comment to ticket. Retrying with the same `Idempotency-Key` returns " +
+                    "the first response instead of adding the comment again"
     )
     public ResponseEntity<ApiResponseBody<SingleCommentResponse>> addCommentToTicket(
             @PathVariable("ticketId") UUID ticketId,
             @RequestBody AddCommentRequest body,
-            @RequestHeader("Authorization") String authHeader
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     ){
-        return ticketService.addCommentTicket(ticketId, body, authHeader);
+        return idempotencyService.execute(idempotencyKey, "POST /tickets/" + ticketId + "/comments", body,
+                COMMENT_RESPONSE_TYPE, () -> ticketService.addCommentTicket(ticketId, body));
     }
 
     @PatchMapping("/{ticketId}/status")
@@ -84,24 +194,42 @@ public class TicketController {
     )
     public ResponseEntity<ApiResponseBody<SingleTicketResponse>> updateTicketStatus(
             @PathVariable("ticketId") UUID ticketId,
-            @RequestBody UpdateTicketStatusRequest body,
-            @RequestHeader("Authorization") String authHeader
+            @RequestBody UpdateTicketStatusRequest body
     ){
-        return ticketService.updateTicketStatus(ticketId, body, authHeader);
+        return ticketService.updateTicketStatus(ticketId, body);
     }
 
 
+    @PatchMapping("/status")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Bulk update ticket status",
+            description = "IT Support only. Moves the tickets in `ticketIds`, or every ticket matching `filter`, to " +
+                    "`status` and reports UPDATED, UNCHANGED or NOT_FOUND per ticket. A filter matching more tickets " +
+                    "than one request may change returns `truncated`, send it again for the rest"
+    )
+    public ResponseEntity<ApiResponseBody<BulkTicketStatusResponse>> updateTicketStatuses(
+            @Valid @RequestBody BulkTicketStatusRequest body
+    ){
+        return ticketBulkStatusService.updateTicketStatuses(body);
+    }
+
     @GetMapping("/user")
     @ResponseStatus(HttpStatus.OK)
     @Operation(
             summary = "Get User Tickets",
-            description = "Fetches tickets opened by specific user"
+            description = "Fetches tickets opened by specific user. Passing `cursor` (empty for the first page) " +
+                    "switches to keyset pagination and returns `nextCursor`. Supports `If-None-Match`"
     )
     public ResponseEntity<ApiResponseBody<TicketDataResponse<TicketListResponse>>> getTicketsByCreator(
-            @RequestHeader("Authorization") String authHeader,
             @RequestParam(name = "page", defaultValue = "1") int page,
-            @RequestParam(name = "size", defaultValue = "10") int size
+            @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ){
-        return ticketService.getTicketsByCreator(authHeader, page, size);
+        if (cursor != null) {
+            return ticketService.getTicketsByCreator(cursor, size, ifNoneMatch);
+        }
+        return ticketService.getTicketsByCreator(page, size, ifNoneMatch);
     }
 }
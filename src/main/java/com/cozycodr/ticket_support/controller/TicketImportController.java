@@ -0,0 +1,39 @@
+package com.cozycodr.ticket_support.controller;
+
+import com.cozycodr.ticket_support.helpers.ApiResponseBody;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketImportResponse;
+import com.cozycodr.ticket_support.service.TicketImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Custom method path /tickets:import, which a "/tickets" class mapping would join as /tickets/:import
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Tickets", description = "Ticket management APIs")
+public class TicketImportController {
+
+    private final TicketImportService ticketImportService;
+
+    @PostMapping(path = "/tickets:import", consumes = {"application/x-ndjson", "text/csv"})
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(
+            summary = "Import tickets",
+            description = "Creates tickets from an NDJSON body, one ticket per line, or a CSV body with a header " +
+                    "naming the title, description, priority and category columns. Invalid rows are reported " +
+                    "with their row number and skipped, the rest of the file is still imported"
+    )
+    public ResponseEntity<ApiResponseBody<TicketImportResponse>> importTickets(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) throws IOException {
+        return ticketImportService.importTickets(contentType, body);
+    }
+}
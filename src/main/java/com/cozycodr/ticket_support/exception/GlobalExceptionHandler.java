@@ -6,7 +6,6 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.coyote.BadRequestException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -50,6 +49,23 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return buildErrorResponse(HttpStatus.NOT_FOUND, ex, errorResponse);
     }
 
+    @ExceptionHandler(UnauthorizedException.class)
+    protected ResponseEntity<ApiResponseBody<ErrorResponse>> handleUnauthorizedException(
+            UnauthorizedException ex,
+            WebRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.UNAUTHORIZED.value())
+                .code("UNAUTHORIZED")
+                .message(ex.getMessage())
+                .path(((ServletWebRequest) request).getRequest().getRequestURI())
+                .build();
+
+        log.error("Unauthorized: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.UNAUTHORIZED, ex, errorResponse);
+    }
+
     @ExceptionHandler(BadRequestException.class)
     protected ResponseEntity<ApiResponseBody<ErrorResponse>> handleBadRequestException(
             BadRequestException ex,
@@ -0,0 +1,56 @@
+package com.cozycodr.ticket_support.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ETags {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Builds a strong entity tag from the values that determine a representation
+     * @param parts version inputs, e.g. an id and its last modification time
+     * @return a quoted entity tag
+     */
+    public static String strong(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (Object part : parts) {
+            raw.append(part).append(SEPARATOR);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(raw.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Checks an If-None-Match header against the current entity tag, using the weak
+     * comparison RFC 9110 prescribes for If-None-Match
+     * @param ifNoneMatch header value, may be null
+     * @param etag current entity tag
+     * @return true when the client's copy is current and 304 can be sent
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
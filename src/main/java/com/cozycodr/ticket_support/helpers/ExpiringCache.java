@@ -0,0 +1,153 @@
+package com.cozycodr.ticket_support.helpers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Small in-process cache bounded by entry count and entry age. Reads take no lock, so
+ * request threads never queue on it.
+ * <p>
+ * Expired entries are removed when they are read, and by a sweep that writes run at most
+ * once per ttl, or as soon as the cache grows past its size. When expired entries do not
+ * free enough room, the sweep evicts the entries closest to expiry, leaving some headroom
+ * so the next writes do not sweep again. Concurrent writes may briefly take the cache
+ * slightly over its size until the running sweep finishes.
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile long nextSweepAtMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::currentTimeMillis);
+    }
+
+    public ExpiringCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.nextSweepAtMillis = clock.getAsLong() + ttlMillis;
+    }
+
+    /**
+     * @param key cache key
+     * @return the cached value, or null when absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.getAsLong()) {
+            // Only removes this entry, not one another thread put in the meantime
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    public void put(K key, V value) {
+        put(key, value, Long.MAX_VALUE);
+    }
+
+    /**
+     * Caches a value until the cache ttl elapses or the given deadline passes, whichever is first
+     * @param key cache key
+     * @param value value to cache
+     * @param expiresAtMillis latest point in time, in epoch millis, the value may be served
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long expiresAt = Math.min(expiresAtMillis, now + ttlMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+        if (entries.size() > maxSize || now >= nextSweepAtMillis) {
+            sweep(now);
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    // One writer sweeps at a time, the others carry on
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            nextSweepAtMillis = now + ttlMillis;
+            entries.entrySet().removeIf(entry -> {
+                if (entry.getValue().expiresAtMillis() <= now) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            });
+
+            int excess = entries.size() - (maxSize - maxSize / 10);
+            if (entries.size() <= maxSize || excess <= 0) {
+                return;
+            }
+            List<Map.Entry<K, Entry<V>>> soonestFirst = new ArrayList<>(entries.entrySet());
+            soonestFirst.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAtMillis()));
+            for (Map.Entry<K, Entry<V>> entry : soonestFirst.subList(0, Math.min(excess, soonestFirst.size()))) {
+                if (entries.remove(entry.getKey(), entry.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
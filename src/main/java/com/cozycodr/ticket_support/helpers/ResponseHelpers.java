@@ -1,5 +1,6 @@
 package com.cozycodr.ticket_support.helpers;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -15,6 +16,29 @@ public class ResponseHelpers {
                 );
     }
 
+    /**
+     * Builds a success response carrying an entity tag, clients must revalidate before reusing it
+     * @param etag strong entity tag of the data
+     */
+    public static <T> ResponseEntity<ApiResponseBody<T>> buildSuccessResponse(HttpStatus status, String message, T data, String etag){
+        return ResponseEntity.status(status)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ApiResponseBody.<T>builder()
+                        .statusCode(status.value())
+                        .message(message)
+                        .data(data)
+                    .build()
+                );
+    }
+
+    public static <T> ResponseEntity<ApiResponseBody<T>> buildNotModifiedResponse(String etag){
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .build();
+    }
+
     public static <T> ResponseEntity<ApiResponseBody<T>> buildErrorResponse(HttpStatus status, Exception e){
         return ResponseEntity.status(status)
                 .body(ApiResponseBody.<T>builder()
@@ -0,0 +1,21 @@
+package com.cozycodr.ticket_support.helpers;
+
+import com.cozycodr.ticket_support.exception.UnauthorizedException;
+import com.cozycodr.ticket_support.model.dto.auth.AuthenticatedUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class SecurityHelpers {
+
+    /**
+     * Reads the principal the JWT filter put in the SecurityContext
+     * @return the user of the current request
+     */
+    public static AuthenticatedUser currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new UnauthorizedException("Not authenticated");
+        }
+        return user;
+    }
+}
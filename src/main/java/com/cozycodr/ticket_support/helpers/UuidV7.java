@@ -0,0 +1,49 @@
+package com.cozycodr.ticket_support.helpers;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs in the version 7 layout of RFC 9562: a 48 bit unix millisecond
+ * timestamp, a 12 bit counter and 62 random bits. Ids from this JVM are strictly
+ * increasing, so new rows are appended to the right edge of the primary key index
+ * instead of landing on a random leaf.
+ * <p>
+ * The random bits come from a {@link SecureRandom}, like {@link UUID#randomUUID()}: the ids
+ * appear in URLs, and must not be predictable from ids seen before.
+ */
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Timestamp and counter packed as (millis << 12 | counter), the top 60 bits of the UUID
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID randomUuid() {
+        long timestampAndCounter = nextTimestampAndCounter();
+        long mostSigBits = (timestampAndCounter >>> COUNTER_BITS) << 16
+                | 0x7000L
+                | (timestampAndCounter & 0xFFFL);
+        long leastSigBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL
+                | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static long nextTimestampAndCounter() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        while (true) {
+            long last = lastTimestampAndCounter.get();
+            // Same millisecond, or the clock stepped back: keep counting from the last id.
+            // A counter overflow carries into the timestamp, which stays monotonic.
+            long next = Math.max(now, last + 1);
+            if (lastTimestampAndCounter.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.cozycodr.ticket_support.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -7,13 +8,20 @@ import java.util.List;
 
 @Data
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageResponse<T> {
     private List<T> content;
     private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+
+    // Only populated in offset mode, cursor mode skips the COUNT query
+    private Long totalElements;
+    private Integer totalPages;
+
     private boolean hasNext;
     private boolean last;
     private boolean first;
-}
\ No newline at end of file
+
+    // Opaque cursor for the next page in cursor mode, null when there is no next page
+    private String nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.cozycodr.ticket_support.model.dto.audit;
+
+import com.cozycodr.ticket_support.model.enums.AuditEventType;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuditEventResponse {
+    private UUID id;
+    private AuditEventType eventType;
+    private UUID ticketId;
+    private UUID commentId;
+    private UUID actorId;
+    private String actorUsername;
+    private TicketStatus beforeStatus;
+    private TicketStatus afterStatus;
+    private Integer affectedCount;
+    private String message;
+    private LocalDateTime createdDate;
+}
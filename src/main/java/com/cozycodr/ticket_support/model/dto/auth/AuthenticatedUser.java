@@ -0,0 +1,31 @@
+package com.cozycodr.ticket_support.model.dto.auth;
+
+import com.cozycodr.ticket_support.model.entity.User;
+import com.cozycodr.ticket_support.model.enums.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal of an authenticated request, built from the JWT claims alone
+ * so that resolving the current user needs no database lookup.
+ */
+public record AuthenticatedUser(UUID id, String username, Role role) {
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+    }
+
+    public boolean isItSupport() {
+        return role == Role.IT_SUPPORT;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        if (role == null) {
+            return List.of();
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -0,0 +1,21 @@
+package com.cozycodr.ticket_support.model.dto.auth;
+
+import com.cozycodr.ticket_support.model.entity.User;
+import com.cozycodr.ticket_support.model.enums.Role;
+
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the user fields needed to authenticate, safe to cache
+ * between requests unlike the managed {@link User} entity.
+ */
+public record UserIdentity(UUID id, String username, Role role, String passwordHash) {
+
+    public static UserIdentity from(User user) {
+        return new UserIdentity(user.getId(), user.getUsername(), user.getRole(), user.getPassword());
+    }
+
+    public AuthenticatedUser toAuthenticatedUser() {
+        return new AuthenticatedUser(id, username, role);
+    }
+}
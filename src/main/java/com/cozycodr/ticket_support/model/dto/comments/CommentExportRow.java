@@ -0,0 +1,18 @@
+package com.cozycodr.ticket_support.model.dto.comments;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Comment of an exported ticket, selected through a constructor expression
+ */
+public record CommentExportRow(
+        @JsonIgnore UUID ticketId,
+        UUID id,
+        String message,
+        String commenter,
+        LocalDateTime createdDate
+) {
+}
@@ -2,12 +2,14 @@ package com.cozycodr.ticket_support.model.dto.comments;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
 @Builder
+@Jacksonized
 public class CommentResponse {
 
     private UUID id;
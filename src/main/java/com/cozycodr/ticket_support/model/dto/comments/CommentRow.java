@@ -0,0 +1,18 @@
+package com.cozycodr.ticket_support.model.dto.comments;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Comment with its commenter, selected through a constructor expression that joins the
+ * commenter in the same query instead of loading each commenter separately.
+ */
+public record CommentRow(
+        UUID id,
+        String message,
+        UUID commenterId,
+        String commenterUsername,
+        LocalDateTime createdDate,
+        LocalDateTime updatedDate
+) {
+}
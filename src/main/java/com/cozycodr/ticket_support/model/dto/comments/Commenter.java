@@ -2,11 +2,13 @@ package com.cozycodr.ticket_support.model.dto.comments;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.UUID;
 
 @Data
 @Builder
+@Jacksonized
 public class Commenter {
     private UUID id;
     private String username;
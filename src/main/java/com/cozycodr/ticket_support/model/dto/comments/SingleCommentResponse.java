@@ -2,9 +2,11 @@ package com.cozycodr.ticket_support.model.dto.comments;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 @Data
 @Builder
+@Jacksonized
 public class SingleCommentResponse {
     private CommentResponse comment;
 }
@@ -0,0 +1,23 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Target status for either a list of tickets or every ticket matching a filter
+ */
+@Data
+public class BulkTicketStatusRequest {
+
+    @NotNull(message = "Status is required")
+    private TicketStatus status;
+
+    private List<UUID> ticketIds;
+
+    // Its status is the current one, tickets already in the target status are skipped either way
+    private TicketFilter filter;
+}
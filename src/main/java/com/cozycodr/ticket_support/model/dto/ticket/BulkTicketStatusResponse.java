@@ -0,0 +1,29 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BulkTicketStatusResponse {
+    private TicketStatus status;
+    private int updated;
+    private int unchanged;
+    private int notFound;
+    // The filter matched more tickets than one request may change, send it again for the rest
+    private boolean truncated;
+    private List<Result> results;
+
+    public enum Outcome {
+        UPDATED, UNCHANGED, NOT_FOUND
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Result(UUID ticketId, Outcome outcome, TicketStatus previousStatus) {
+    }
+}
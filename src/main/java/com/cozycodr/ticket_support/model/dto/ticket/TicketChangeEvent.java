@@ -0,0 +1,35 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import com.cozycodr.ticket_support.model.dto.comments.CommentResponse;
+import com.cozycodr.ticket_support.model.enums.TicketChangeType;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A committed change to a ticket, pushed to subscribers of GET /tickets/stream.
+ * Only the fields relevant to the change type are set.
+ */
+@Data
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TicketChangeEvent {
+    // Position in the stream, sent as the SSE event id and used to resume
+    private long sequence;
+    private TicketChangeType type;
+    private UUID ticketId;
+    private TicketSummaryResponse ticket;
+    private TicketStatus previousStatus;
+    private TicketStatus status;
+    private CommentResponse comment;
+    private LocalDateTime occurredAt;
+
+    // Used to filter delivery, not sent to clients
+    @JsonIgnore
+    private UUID ticketOwnerId;
+}
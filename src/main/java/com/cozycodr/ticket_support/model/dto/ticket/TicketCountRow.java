@@ -0,0 +1,11 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+
+/**
+ * Number of tickets with one status, priority and category
+ */
+public record TicketCountRow(TicketStatus status, TicketPriority priority, TicketCategory category, long count) {
+}
@@ -0,0 +1,17 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import com.cozycodr.ticket_support.model.dto.comments.CommentExportRow;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+/**
+ * One NDJSON line of a ticket export: the ticket's columns with its comments, oldest first
+ */
+public record TicketExportRecord(
+        @JsonUnwrapped TicketExportRow ticket,
+        // Left out when the export is requested without comments
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<CommentExportRow> comments
+) {
+}
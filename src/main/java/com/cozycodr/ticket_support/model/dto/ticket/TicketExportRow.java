@@ -0,0 +1,25 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Ticket columns of an export, selected through a constructor expression so streaming
+ * the export builds no managed entities.
+ */
+public record TicketExportRow(
+        UUID id,
+        String title,
+        String description,
+        TicketStatus status,
+        TicketPriority priority,
+        TicketCategory category,
+        String createdBy,
+        LocalDateTime createdDate,
+        LocalDateTime updatedDate
+) {
+}
@@ -0,0 +1,24 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Facets a ticket list can be narrowed by. Every field is optional, absent ones do not
+ * constrain the list.
+ * @param createdFrom inclusive lower bound of the creation time
+ * @param createdTo exclusive upper bound of the creation time
+ */
+public record TicketFilter(
+        TicketStatus status,
+        TicketPriority priority,
+        TicketCategory category,
+        UUID raisedBy,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo
+) {
+}
@@ -0,0 +1,25 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TicketImportResponse {
+    private long received;
+    private long imported;
+    private long failed;
+    // Capped, failed counts every rejected row
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    /**
+     * A rejected row
+     * @param row 1-based position of the row in the file, not counting a CSV header
+     * @param message why it was rejected
+     */
+    public record RowError(long row, String message) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.cozycodr.ticket_support.model.dto.ticket;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -7,8 +8,11 @@ import java.util.List;
 
 @Data
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class TicketListResponse {
 
-    List<TicketResponse> tickets;
+    List<TicketSummaryResponse> tickets;
+
+    String nextCursor;
 
 }
@@ -6,6 +6,7 @@ import com.cozycodr.ticket_support.model.enums.TicketPriority;
 import com.cozycodr.ticket_support.model.enums.TicketStatus;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,6 +15,7 @@ import java.util.UUID;
 
 @Data
 @Builder
+@Jacksonized
 public class TicketResponse {
     private UUID id;
     private String title;
@@ -0,0 +1,22 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+public class TicketStatsResponse {
+    private long total;
+    private Map<TicketStatus, Long> byStatus;
+    private Map<TicketPriority, Long> byPriority;
+    private Map<TicketCategory, Long> byCategory;
+    private Map<TicketStatus, Map<TicketCategory, Long>> byStatusAndCategory;
+    // Last time the counters were checked against the database, null until the startup rebuild ran
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,14 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+
+import java.util.UUID;
+
+/**
+ * Status, owner and counted facets of a ticket, all a bulk status update needs to know about it
+ */
+public record TicketStatusRow(UUID id, TicketStatus status, TicketPriority priority, TicketCategory category,
+                              UUID raisedById) {
+}
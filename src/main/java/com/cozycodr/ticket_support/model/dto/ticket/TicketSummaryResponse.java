@@ -0,0 +1,24 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * List row of a ticket, selected straight from the query through a constructor
+ * expression. It carries no description or comments, so list queries never touch
+ * the description CLOB or build managed Ticket entities.
+ */
+public record TicketSummaryResponse(
+        UUID id,
+        String title,
+        TicketStatus status,
+        TicketPriority priority,
+        TicketCategory category,
+        String createdBy,
+        LocalDateTime createdDate
+) {
+}
@@ -0,0 +1,11 @@
+package com.cozycodr.ticket_support.model.dto.ticket;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inputs of a ticket details entity tag, read without loading the ticket or its comments
+ * @param updatedDate last modification of the ticket row
+ * @param lastCommentDate creation time of the newest comment, null when there are none
+ */
+public record TicketVersion(LocalDateTime updatedDate, LocalDateTime lastCommentDate) {
+}
@@ -1,12 +1,16 @@
 package com.cozycodr.ticket_support.model.entity;
 
+import com.cozycodr.ticket_support.model.enums.AuditEventType;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import com.cozycodr.ticket_support.model.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -16,16 +20,48 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_audit_log_created", columnList = "created_date, id"),
+        @Index(name = "idx_audit_log_ticket_created", columnList = "ticket_id, created_date, id"),
+        @Index(name = "idx_audit_log_actor_created", columnList = "actor_id, created_date, id"),
+        @Index(name = "idx_audit_log_type_created", columnList = "event_type, created_date, id")
+})
 public class AuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
-    @Column(columnDefinition = "TEXT", nullable = false)
+    // Null only for rows written before audit events were structured
+    @Enumerated(EnumType.STRING)
+    @Column(length = 40)
+    private AuditEventType eventType;
+
+    private UUID ticketId;
+
+    private UUID commentId;
+
+    private UUID actorId;
+
+    private String actorUsername;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TicketStatus beforeStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TicketStatus afterStatus;
+
+    // Number of tickets covered by a summary event such as TICKETS_IMPORTED
+    private Integer affectedCount;
+
+    // Pre-rendered message of legacy rows, new rows render theirs at read time
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
     private String logMessage;
 
-    @CreationTimestamp
+    // Set when the event is recorded, not when the write-behind batch is flushed
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdDate;
 
     @UpdateTimestamp
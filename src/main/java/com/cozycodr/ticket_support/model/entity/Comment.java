@@ -1,5 +1,6 @@
 package com.cozycodr.ticket_support.model.entity;
 
+import com.cozycodr.ticket_support.model.id.TimeOrderedUuid;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -20,7 +21,7 @@ import java.util.UUID;
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
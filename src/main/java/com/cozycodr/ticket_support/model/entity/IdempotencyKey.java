@@ -0,0 +1,52 @@
+package com.cozycodr.ticket_support.model.entity;
+
+import com.cozycodr.ticket_support.model.id.TimeOrderedUuid;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "ux_idempotency_key_user_key", columnList = "user_id, idempotency_key", unique = true),
+        @Index(name = "idx_idempotency_key_expires", columnList = "expires_at")
+})
+public class IdempotencyKey {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 of the operation and request body, a key reused for another request is rejected
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private int responseStatus;
+
+    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String responseBody;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime expiresAt;
+}
@@ -3,6 +3,7 @@ package com.cozycodr.ticket_support.model.entity;
 import com.cozycodr.ticket_support.model.enums.TicketCategory;
 import com.cozycodr.ticket_support.model.enums.TicketPriority;
 import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import com.cozycodr.ticket_support.model.id.TimeOrderedUuid;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -10,7 +11,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -25,13 +28,15 @@ import java.util.UUID;
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
     private String title;
 
-    @Column(columnDefinition = "TEXT", nullable = false)
+    // CLOB on Oracle, TEXT on PostgreSQL
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(nullable = false)
     private String description;
 
     @Column(nullable = false)
@@ -46,12 +51,13 @@ public class Ticket {
 
     @JsonIgnore
     @JoinColumn(nullable = false)
-    @ManyToOne(cascade = CascadeType.ALL)
+    @ManyToOne
     private User raisedBy;
 
+    // Owned by Comment.ticket, no join table
     @JsonIgnore
     @Builder.Default
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 
     @CreationTimestamp
@@ -63,5 +69,6 @@ public class Ticket {
     public void addComment(Comment comment) {
         if (comments == null) comments = new ArrayList<>();
         comments.add(comment);
+        comment.setTicket(this);
     }
 }
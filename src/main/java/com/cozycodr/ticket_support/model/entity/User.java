@@ -1,6 +1,8 @@
 package com.cozycodr.ticket_support.model.entity;
 
 import com.cozycodr.ticket_support.model.enums.Role;
+import com.cozycodr.ticket_support.model.id.TimeOrderedUuid;
+import com.cozycodr.ticket_support.service.UserIdentityCacheListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -19,6 +21,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity(name = "app_user")
+@EntityListeners(UserIdentityCacheListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -26,7 +29,7 @@ import java.util.UUID;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -49,9 +52,10 @@ public class User implements UserDetails {
     @OneToMany(mappedBy = "raisedBy", orphanRemoval = true)
     private List<Ticket> ticketsRaised = new ArrayList<>();
 
+    // Owned by Comment.commenter, no join table
     @JsonIgnore
     @Builder.Default
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "commenter")
     private List<Comment> comments = new ArrayList<>();
 
     @CreationTimestamp
@@ -68,6 +72,7 @@ public class User implements UserDetails {
     public void addComment(Comment comment) {
         if (comments == null) comments = new ArrayList<>();
         comments.add(comment);
+        comment.setCommenter(this);
     }
 
     @Override
@@ -0,0 +1,6 @@
+package com.cozycodr.ticket_support.model.enums;
+
+public enum AuditEventType {
+    TICKET_CREATED, COMMENT_ADDED, TICKET_STATUS_CHANGED, USER_REGISTERED, USER_LOGGED_IN,
+    TICKETS_IMPORTED
+}
@@ -0,0 +1,52 @@
+package com.cozycodr.ticket_support.model.enums;
+
+import com.cozycodr.ticket_support.exception.BadRequestException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * File formats of ticket exports and imports
+ */
+public enum TicketFileFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    TicketFileFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static TicketFileFormat from(String value) {
+        for (TicketFileFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported format " + value + ", use ndjson or csv");
+    }
+
+    public static TicketFileFormat fromContentType(String contentType) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            for (TicketFileFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(mediaType)) {
+                    return format;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Reported below like any other unsupported type
+        }
+        throw new BadRequestException("Unsupported Content-Type " + contentType + ", use application/x-ndjson or text/csv");
+    }
+}
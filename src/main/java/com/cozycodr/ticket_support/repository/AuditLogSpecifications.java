@@ -0,0 +1,52 @@
+package com.cozycodr.ticket_support.repository;
+
+import com.cozycodr.ticket_support.model.entity.AuditLog;
+import com.cozycodr.ticket_support.model.enums.AuditEventType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filters for audit log queries. Each one returns null when its value is absent,
+ * which Specification.where/and skip, so only supplied filters reach the SQL.
+ */
+public final class AuditLogSpecifications {
+
+    private AuditLogSpecifications() {
+    }
+
+    public static Specification<AuditLog> hasTicketId(UUID ticketId) {
+        return ticketId == null ? null : (root, query, cb) -> cb.equal(root.get("ticketId"), ticketId);
+    }
+
+    public static Specification<AuditLog> hasActorId(UUID actorId) {
+        return actorId == null ? null : (root, query, cb) -> cb.equal(root.get("actorId"), actorId);
+    }
+
+    public static Specification<AuditLog> hasEventType(AuditEventType eventType) {
+        return eventType == null ? null : (root, query, cb) -> cb.equal(root.get("eventType"), eventType);
+    }
+
+    public static Specification<AuditLog> createdFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdDate"), from);
+    }
+
+    public static Specification<AuditLog> createdBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("createdDate"), to);
+    }
+
+    // Keyset predicate: rows strictly after (createdDate, id) in descending order
+    public static Specification<AuditLog> after(LocalDateTime createdDate, UUID id) {
+        if (createdDate == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdDate"), createdDate),
+                cb.and(
+                        cb.equal(root.get("createdDate"), createdDate),
+                        cb.lessThan(root.<UUID>get("id"), id)
+                )
+        );
+    }
+}
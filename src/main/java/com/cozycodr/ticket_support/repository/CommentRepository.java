@@ -1,14 +1,48 @@
 package com.cozycodr.ticket_support.repository;
 
+import com.cozycodr.ticket_support.model.dto.comments.CommentExportRow;
+import com.cozycodr.ticket_support.model.dto.comments.CommentRow;
 import com.cozycodr.ticket_support.model.entity.Comment;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
-    List<Comment> findAllByTicket_IdOrderByCreatedDateDesc(UUID ticketId, Pageable pageable);
+
+    // Comment queries project into CommentRow, the commenter comes from the same join
+    String COMMENT_ROW_SELECT = """
+            SELECT new com.cozycodr.ticket_support.model.dto.comments.CommentRow(
+                c.id, c.message, u.id, u.username, c.createdDate, c.updatedDate)
+            FROM Comment c JOIN c.commenter u
+            """;
+
+    // Keyset pagination, newest first, served by idx_comment_ticket_created
+    @Query(COMMENT_ROW_SELECT + " WHERE c.ticket.id = :ticketId ORDER BY c.createdDate DESC, c.id DESC")
+    List<CommentRow> findFirstCommentRows(UUID ticketId, Limit limit);
+
+    // Keyset pagination: comments strictly after the (createdDate, id) cursor
+    @Query(COMMENT_ROW_SELECT + """
+            WHERE c.ticket.id = :ticketId
+              AND (c.createdDate < :createdDate
+                   OR (c.createdDate = :createdDate AND c.id < :id))
+            ORDER BY c.createdDate DESC, c.id DESC
+            """)
+    List<CommentRow> findCommentRowsAfter(UUID ticketId, LocalDateTime createdDate, UUID id, Limit limit);
+
+    // Comments of a chunk of exported tickets in one query, served by idx_comment_ticket_created
+    @Query("""
+            SELECT new com.cozycodr.ticket_support.model.dto.comments.CommentExportRow(
+                c.ticket.id, c.id, c.message, u.username, c.createdDate)
+            FROM Comment c JOIN c.commenter u
+            WHERE c.ticket.id IN :ticketIds
+            ORDER BY c.createdDate, c.id
+            """)
+    List<CommentExportRow> findExportRowsByTicketIds(Collection<UUID> ticketIds);
 }
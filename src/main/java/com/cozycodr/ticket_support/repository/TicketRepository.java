@@ -1,25 +1,91 @@
 package com.cozycodr.ticket_support.repository;
 
+import com.cozycodr.ticket_support.model.dto.ticket.TicketCountRow;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketStatusRow;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketSummaryResponse;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketVersion;
 import com.cozycodr.ticket_support.model.entity.Ticket;
-import com.cozycodr.ticket_support.model.entity.User;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, UUID> {
-
-    // Method to find all tickets with pagination and sorting
-    @Query("SELECT t FROM Ticket t ORDER BY t.createdDate DESC")
-    Page<Ticket> findAllTicketsOrderByCreatedDateDesc(Pageable pageable);
+public interface TicketRepository extends JpaRepository<Ticket, UUID>, TicketSummaryRepository {
 
+    // List queries project straight into TicketSummaryResponse, skipping the description CLOB
+    String SUMMARY_SELECT = """
+            SELECT new com.cozycodr.ticket_support.model.dto.ticket.TicketSummaryResponse(
+                t.id, t.title, t.status, t.priority, t.category, u.username, t.createdDate)
+            FROM Ticket t JOIN t.raisedBy u
+            """;
 
     // Optional: Find tickets by creator with pagination
-    @Query("SELECT t FROM Ticket t WHERE t.raisedBy = :user ORDER BY t.createdDate DESC")
-    Page<Ticket> findTicketsByRaisedBy(User user, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + " WHERE t.raisedBy.id = :userId ORDER BY t.createdDate DESC, t.id DESC",
+            countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.raisedBy.id = :userId")
+    Page<TicketSummaryResponse> findTicketSummariesByRaisedBy(UUID userId, Pageable pageable);
+
+    // Keyset pagination: first page, no OFFSET and no COUNT query
+    @Query(SUMMARY_SELECT + " WHERE t.raisedBy.id = :userId ORDER BY t.createdDate DESC, t.id DESC")
+    List<TicketSummaryResponse> findFirstTicketSummariesByRaisedBy(UUID userId, Limit limit);
+
+    @Query(SUMMARY_SELECT + """
+            WHERE t.raisedBy.id = :userId
+              AND (t.createdDate < :createdDate
+                   OR (t.createdDate = :createdDate AND t.id < :id))
+            ORDER BY t.createdDate DESC, t.id DESC
+            """)
+    List<TicketSummaryResponse> findTicketSummariesByRaisedByAfter(
+            UUID userId,
+            LocalDateTime createdDate,
+            UUID id,
+            Limit limit
+    );
+
+    // Entity tag inputs of the ticket details, without loading the ticket or its comments
+    @Query("""
+            SELECT new com.cozycodr.ticket_support.model.dto.ticket.TicketVersion(
+                t.updatedDate,
+                (SELECT MAX(c.createdDate) FROM Comment c WHERE c.ticket.id = t.id))
+            FROM Ticket t WHERE t.id = :ticketId
+            """)
+    Optional<TicketVersion> findTicketVersion(UUID ticketId);
+
+    // Existence check that also returns the owner, for filtering change notifications
+    @Query("SELECT t.raisedBy.id FROM Ticket t WHERE t.id = :ticketId")
+    Optional<UUID> findRaisedByIdById(UUID ticketId);
+
+    // Current status and owner of a chunk of a bulk update, locked until the chunk commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT new com.cozycodr.ticket_support.model.dto.ticket.TicketStatusRow(
+                t.id, t.status, t.priority, t.category, t.raisedBy.id)
+            FROM Ticket t WHERE t.id IN :ticketIds
+            """)
+    List<TicketStatusRow> findStatusRowsForUpdate(Collection<UUID> ticketIds);
+
+    // Full table aggregate, only run to rebuild and reconcile the in-memory ticket counters
+    @Query("""
+            SELECT new com.cozycodr.ticket_support.model.dto.ticket.TicketCountRow(
+                t.status, t.priority, t.category, COUNT(t))
+            FROM Ticket t GROUP BY t.status, t.priority, t.category
+            """)
+    List<TicketCountRow> countByStatusPriorityCategory();
+
+    // Set-based status change, updatedDate is set here since @UpdateTimestamp only applies to entity updates
+    @Modifying
+    @Query("UPDATE Ticket t SET t.status = :status, t.updatedDate = :updatedDate WHERE t.id IN :ticketIds")
+    int updateStatus(Collection<UUID> ticketIds, TicketStatus status, LocalDateTime updatedDate);
 }
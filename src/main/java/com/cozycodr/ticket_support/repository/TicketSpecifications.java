@@ -0,0 +1,76 @@
+package com.cozycodr.ticket_support.repository;
+
+import com.cozycodr.ticket_support.model.dto.ticket.TicketFilter;
+import com.cozycodr.ticket_support.model.entity.Ticket;
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filters for ticket queries. Each one returns null when its value is absent,
+ * which Specification.where/and skip, so only supplied filters reach the SQL.
+ */
+public final class TicketSpecifications {
+
+    private TicketSpecifications() {
+    }
+
+    public static Specification<Ticket> matching(TicketFilter filter) {
+        return Specification.where(hasStatus(filter.status()))
+                .and(hasPriority(filter.priority()))
+                .and(hasCategory(filter.category()))
+                .and(raisedBy(filter.raisedBy()))
+                .and(createdFrom(filter.createdFrom()))
+                .and(createdBefore(filter.createdTo()));
+    }
+
+    public static Specification<Ticket> hasStatus(TicketStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Ticket> hasPriority(TicketPriority priority) {
+        return priority == null ? null : (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    public static Specification<Ticket> hasCategory(TicketCategory category) {
+        return category == null ? null : (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Ticket> raisedBy(UUID userId) {
+        return userId == null ? null : (root, query, cb) -> cb.equal(root.get("raisedBy").get("id"), userId);
+    }
+
+    public static Specification<Ticket> createdFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdDate"), from);
+    }
+
+    public static Specification<Ticket> createdBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("createdDate"), to);
+    }
+
+    public static Specification<Ticket> statusNot(TicketStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.notEqual(root.get("status"), status);
+    }
+
+    // Keyset predicate: rows strictly after (createdDate, id) in descending order
+    public static Specification<Ticket> after(LocalDateTime createdDate, UUID id) {
+        if (createdDate == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdDate"), createdDate),
+                cb.and(
+                        cb.equal(root.get("createdDate"), createdDate),
+                        cb.lessThan(root.<UUID>get("id"), id)
+                )
+        );
+    }
+
+    public static Specification<Ticket> idAfter(UUID id) {
+        return id == null ? null : (root, query, cb) -> cb.greaterThan(root.<UUID>get("id"), id);
+    }
+}
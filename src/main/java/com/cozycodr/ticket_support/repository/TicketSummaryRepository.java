@@ -0,0 +1,22 @@
+package com.cozycodr.ticket_support.repository;
+
+import com.cozycodr.ticket_support.model.dto.ticket.TicketSummaryResponse;
+import com.cozycodr.ticket_support.model.entity.Ticket;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Filtered ticket lists, newest first. Specifications only add the predicates of the
+ * filters that are present, so each combination gets its own plain SQL statement.
+ */
+public interface TicketSummaryRepository {
+
+    Page<TicketSummaryResponse> findTicketSummaries(Specification<Ticket> filter, Pageable pageable);
+
+    // Keyset pagination, the filter carries the cursor predicate of pages after the first
+    List<TicketSummaryResponse> findTicketSummaries(Specification<Ticket> filter, Limit limit);
+}
@@ -0,0 +1,78 @@
+package com.cozycodr.ticket_support.repository;
+
+import com.cozycodr.ticket_support.model.dto.ticket.TicketSummaryResponse;
+import com.cozycodr.ticket_support.model.entity.Ticket;
+import com.cozycodr.ticket_support.model.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+public class TicketSummaryRepositoryImpl implements TicketSummaryRepository {
+
+    private final EntityManager entityManager;
+
+    public TicketSummaryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<TicketSummaryResponse> findTicketSummaries(Specification<Ticket> filter, Pageable pageable) {
+        List<TicketSummaryResponse> content = summaryQuery(filter)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        // The COUNT query is skipped when the page itself tells the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public List<TicketSummaryResponse> findTicketSummaries(Specification<Ticket> filter, Limit limit) {
+        TypedQuery<TicketSummaryResponse> query = summaryQuery(filter);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+
+    // Constructor projection like SUMMARY_SELECT, skipping the description CLOB
+    private TypedQuery<TicketSummaryResponse> summaryQuery(Specification<Ticket> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketSummaryResponse> query = cb.createQuery(TicketSummaryResponse.class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+        Join<Ticket, User> raisedBy = ticket.join("raisedBy");
+
+        query.select(cb.construct(TicketSummaryResponse.class,
+                ticket.get("id"), ticket.get("title"), ticket.get("status"), ticket.get("priority"),
+                ticket.get("category"), raisedBy.get("username"), ticket.get("createdDate")));
+        Predicate predicate = filter.toPredicate(ticket, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(ticket.get("createdDate")), cb.desc(ticket.get("id")));
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Ticket> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+
+        query.select(cb.count(ticket));
+        Predicate predicate = filter.toPredicate(ticket, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
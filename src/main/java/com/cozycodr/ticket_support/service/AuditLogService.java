@@ -1,74 +1,229 @@
 package com.cozycodr.ticket_support.service;
 
+import com.cozycodr.ticket_support.exception.BadRequestException;
+import com.cozycodr.ticket_support.exception.UnauthorizedException;
+import com.cozycodr.ticket_support.helpers.ApiResponseBody;
+import com.cozycodr.ticket_support.helpers.PageCursor;
+import com.cozycodr.ticket_support.model.dto.PageResponse;
+import com.cozycodr.ticket_support.model.dto.audit.AuditEventResponse;
+import com.cozycodr.ticket_support.model.dto.auth.AuthenticatedUser;
 import com.cozycodr.ticket_support.model.entity.AuditLog;
 import com.cozycodr.ticket_support.model.entity.Comment;
 import com.cozycodr.ticket_support.model.entity.Ticket;
 import com.cozycodr.ticket_support.model.entity.User;
+import com.cozycodr.ticket_support.model.enums.AuditEventType;
 import com.cozycodr.ticket_support.model.enums.TicketStatus;
 import com.cozycodr.ticket_support.repository.AuditLogRepository;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.cozycodr.ticket_support.helpers.ResponseHelpers.buildSuccessResponse;
+import static com.cozycodr.ticket_support.helpers.SecurityHelpers.currentUser;
+import static com.cozycodr.ticket_support.repository.AuditLogSpecifications.*;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class AuditLogService {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdDate", "id");
+
+    private final AuditLogWriter auditLogWriter;
     private final AuditLogRepository logRepository;
 
-    public void logNewTicketCreated(User user, Ticket ticket){
-        String message = String.format("new ticket %s opened by %s", ticket.getId(), user.getUsername());
+    public void logNewTicketCreated(AuthenticatedUser user, Ticket ticket){
+        AuditLog auditLog = AuditLog.builder()
+                .eventType(AuditEventType.TICKET_CREATED)
+                .ticketId(ticket.getId())
+                .actorId(user.id())
+                .actorUsername(user.username())
+                .afterStatus(ticket.getStatus())
+                .createdDate(LocalDateTime.now())
+                .build();
+
+        record(auditLog);
+    }
+
+    public void logCommentAddedToTicket(Comment comment, Ticket ticket, AuthenticatedUser user){
         AuditLog auditLog = AuditLog.builder()
-                .logMessage(message)
+                .eventType(AuditEventType.COMMENT_ADDED)
+                .ticketId(ticket.getId())
+                .commentId(comment.getId())
+                .actorId(user.id())
+                .actorUsername(user.username())
+                .createdDate(LocalDateTime.now())
                 .build();
 
-        logRepository.save(auditLog);
-        log.info(message);
+        record(auditLog);
+    }
+
+    public void logTicketStatusChange(TicketStatus beforeStatus, TicketStatus afterStatus, Ticket ticket, AuthenticatedUser user){
+        logTicketStatusChange(beforeStatus, afterStatus, ticket.getId(), user);
     }
 
-    public void logCommentAddedToTicket(Comment comment, Ticket ticket, User user){
-        String message = String.format("new comment %s added ticket %s opened by %s",
-                comment.getId(), ticket.getId(), user.getUsername());
+    public void logTicketStatusChange(TicketStatus beforeStatus, TicketStatus afterStatus, UUID ticketId, AuthenticatedUser user){
         AuditLog auditLog = AuditLog.builder()
-                .logMessage(message)
+                .eventType(AuditEventType.TICKET_STATUS_CHANGED)
+                .ticketId(ticketId)
+                .actorId(user.id())
+                .actorUsername(user.username())
+                .beforeStatus(beforeStatus)
+                .afterStatus(afterStatus)
+                .createdDate(LocalDateTime.now())
                 .build();
 
-        logRepository.save(auditLog);
-        log.info(message);
+        record(auditLog);
     }
 
-    public void logTicketStatusChange(TicketStatus beforeStatus, TicketStatus afterStatus, Ticket ticket, User user){
-        String message = String.format("status of ticket %s changed from %s to %s by %s",
-                ticket.getId(), beforeStatus, afterStatus, user.getUsername()
-        );
+    public void logTicketsImported(AuthenticatedUser user, int ticketCount){
         AuditLog auditLog = AuditLog.builder()
-                .logMessage(message)
+                .eventType(AuditEventType.TICKETS_IMPORTED)
+                .actorId(user.id())
+                .actorUsername(user.username())
+                .afterStatus(TicketStatus.NEW)
+                .affectedCount(ticketCount)
+                .createdDate(LocalDateTime.now())
                 .build();
 
-        logRepository.save(auditLog);
-        log.info(message);
+        record(auditLog);
     }
 
     public void logNewUserCreated(User user){
-        String message = String.format("New user %s registered", user.getUsername());
         AuditLog auditLog = AuditLog.builder()
-                .logMessage(message)
+                .eventType(AuditEventType.USER_REGISTERED)
+                .actorId(user.getId())
+                .actorUsername(user.getUsername())
+                .createdDate(LocalDateTime.now())
                 .build();
 
-        logRepository.save(auditLog);
-        log.info(message);
+        record(auditLog);
     }
 
-    public void logNewUserLogin(User user){
-        String message = String.format("User %s logged in at %x", user.getUsername(), new Date().getTime());
+    public void logNewUserLogin(AuthenticatedUser user){
         AuditLog auditLog = AuditLog.builder()
-                .logMessage(message)
+                .eventType(AuditEventType.USER_LOGGED_IN)
+                .actorId(user.id())
+                .actorUsername(user.username())
+                .createdDate(LocalDateTime.now())
+                .build();
+
+        record(auditLog);
+    }
+
+    /**
+     * Fetches audit events newest first, using keyset pagination
+     * @param ticketId only events of this ticket, optional
+     * @param actorId only events performed by this user, optional
+     * @param eventType only events of this type, optional
+     * @param from inclusive lower bound of the event time, optional
+     * @param to exclusive upper bound of the event time, optional
+     * @param cursor opaque cursor from the previous page, blank for the first page
+     * @param size number of events per page
+     * @return a page of audit events and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<ApiResponseBody<PageResponse<AuditEventResponse>>> getAuditEvents(
+            UUID ticketId, UUID actorId, AuditEventType eventType,
+            LocalDateTime from, LocalDateTime to, String cursor, int size
+    ) {
+        if (!currentUser().isItSupport()) {
+            throw new UnauthorizedException("Only IT Support can view audit events");
+        }
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        PageCursor position = PageCursor.decode(cursor);
+
+        Specification<AuditLog> filter = Specification.where(hasTicketId(ticketId))
+                .and(hasActorId(actorId))
+                .and(hasEventType(eventType))
+                .and(createdFrom(from))
+                .and(createdBefore(to));
+        if (position != null) {
+            filter = filter.and(after(position.createdDate(), position.id()));
+        }
+
+        // One extra row tells us whether a next page exists without a COUNT query
+        List<AuditLog> events = logRepository.findBy(filter, query -> query
+                .sortBy(NEWEST_FIRST)
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = events.size() > size;
+        List<AuditLog> page = hasNext ? events.subList(0, size) : events;
+        String nextCursor = null;
+        if (hasNext) {
+            AuditLog lastEvent = page.get(page.size() - 1);
+            nextCursor = new PageCursor(lastEvent.getCreatedDate(), lastEvent.getId()).encode();
+        }
+
+        var data = PageResponse.<AuditEventResponse>builder()
+                .content(page.stream().map(this::buildAuditEventResponse).toList())
+                .pageSize(size)
+                .first(position == null)
+                .last(!hasNext)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+
+        return buildSuccessResponse(HttpStatus.OK, "Fetched audit events", data);
+    }
+
+    /**
+     * Renders the human readable message of an audit event
+     * @param auditLog a stored audit event
+     * @return the message, legacy rows return their stored message
+     */
+    public String renderMessage(AuditLog auditLog) {
+        if (auditLog.getEventType() == null) {
+            return auditLog.getLogMessage();
+        }
+        return switch (auditLog.getEventType()) {
+            case TICKET_CREATED -> String.format("new ticket %s opened by %s",
+                    auditLog.getTicketId(), auditLog.getActorUsername());
+            case COMMENT_ADDED -> String.format("new comment %s added ticket %s opened by %s",
+                    auditLog.getCommentId(), auditLog.getTicketId(), auditLog.getActorUsername());
+            case TICKET_STATUS_CHANGED -> String.format("status of ticket %s changed from %s to %s by %s",
+                    auditLog.getTicketId(), auditLog.getBeforeStatus(), auditLog.getAfterStatus(),
+                    auditLog.getActorUsername());
+            case TICKETS_IMPORTED -> String.format("%d tickets imported by %s",
+                    auditLog.getAffectedCount(), auditLog.getActorUsername());
+            case USER_REGISTERED -> String.format("New user %s registered", auditLog.getActorUsername());
+            case USER_LOGGED_IN -> String.format("User %s logged in at %s",
+                    auditLog.getActorUsername(), auditLog.getCreatedDate());
+        };
+    }
+
+    public AuditEventResponse buildAuditEventResponse(AuditLog auditLog) {
+        return AuditEventResponse.builder()
+                .id(auditLog.getId())
+                .eventType(auditLog.getEventType())
+                .ticketId(auditLog.getTicketId())
+                .commentId(auditLog.getCommentId())
+                .actorId(auditLog.getActorId())
+                .actorUsername(auditLog.getActorUsername())
+                .beforeStatus(auditLog.getBeforeStatus())
+                .afterStatus(auditLog.getAfterStatus())
+                .affectedCount(auditLog.getAffectedCount())
+                .message(renderMessage(auditLog))
+                .createdDate(auditLog.getCreatedDate())
                 .build();
+    }
 
-        logRepository.save(auditLog);
-        log.info(message);
+    private void record(AuditLog auditLog) {
+        auditLogWriter.enqueue(auditLog);
+        if (log.isInfoEnabled()) {
+            log.info(renderMessage(auditLog));
+        }
     }
 }
@@ -0,0 +1,202 @@
+package com.cozycodr.ticket_support.service;
+
+import com.cozycodr.ticket_support.model.entity.AuditLog;
+import com.cozycodr.ticket_support.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.cozycodr.ticket_support.helpers.TransactionHelpers.afterCommit;
+
+/**
+ * Write-behind pipeline for audit logs. Entries are queued in memory and written
+ * by a single background thread in JDBC batches, either when a batch fills up or
+ * when the flush interval elapses, whichever comes first.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    public enum OverflowPolicy {
+        // Block the caller for up to block-timeout-ms, then drop
+        BLOCK,
+        // Drop the entry immediately
+        DROP
+    }
+
+    private final AuditLogRepository logRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AuditLog> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMs;
+    private final long shutdownTimeoutMs;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private final Thread flushThread;
+    private volatile boolean running;
+
+    public AuditLogWriter(
+            AuditLogRepository logRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.audit.batch-size:100}") int batchSize,
+            @Value("${app.audit.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${app.audit.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${app.audit.block-timeout-ms:100}") long blockTimeoutMs,
+            @Value("${app.audit.shutdown-timeout-ms:10000}") long shutdownTimeoutMs
+    ) {
+        this.logRepository = logRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit log entries waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush.latency")
+                .description("Time taken to write one batch of audit log entries")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.entries.written").register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.entries.dropped").register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.entries.failed").register(meterRegistry);
+
+        this.flushThread = new Thread(this::runFlushLoop, "audit-log-writer");
+        this.flushThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flushThread.start();
+    }
+
+    /**
+     * Queues an audit log entry. When called inside a transaction the entry is only
+     * queued once that transaction commits, so rolled back work is never audited.
+     * @param auditLog entry to be written
+     */
+    public void enqueue(AuditLog auditLog) {
+        afterCommit(() -> offer(auditLog));
+    }
+
+    private void offer(AuditLog auditLog) {
+        if (!running) {
+            // Late entries during shutdown are written straight away
+            flush(List.of(auditLog));
+            return;
+        }
+
+        boolean accepted;
+        try {
+            accepted = overflowPolicy == OverflowPolicy.BLOCK
+                    ? queue.offer(auditLog, blockTimeoutMs, TimeUnit.MILLISECONDS)
+                    : queue.offer(auditLog);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+
+        if (!accepted) {
+            droppedCounter.increment();
+            log.warn("Audit queue full, dropped {} event", auditLog.getEventType());
+        }
+    }
+
+    private void runFlushLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditLog first = queue.poll(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch, System.nanoTime() + flushIntervalNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            flush(batch);
+            batch.clear();
+        }
+
+        flush(batch);
+        batch.clear();
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void fillBatch(List<AuditLog> batch, long deadline) throws InterruptedException {
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            AuditLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<AuditLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(
+                    status -> logRepository.saveAll(batch)
+            ));
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to write {} audit log entries", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The flush loop notices within one flush interval, no interrupt so an in-flight batch is not cut off
+        running = false;
+        flushThread.join(shutdownTimeoutMs);
+        if (flushThread.isAlive()) {
+            log.warn("Audit log writer did not drain within {} ms, {} entries left",
+                    shutdownTimeoutMs, queue.size());
+            return;
+        }
+
+        // Entries that raced with shutdown
+        List<AuditLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+}
@@ -4,8 +4,10 @@ import com.cozycodr.ticket_support.exception.ResourceNotFoundException;
 import com.cozycodr.ticket_support.exception.UserAlreadyExistsException;
 import com.cozycodr.ticket_support.helpers.ApiResponseBody;
 import com.cozycodr.ticket_support.model.dto.auth.AuthDataResponse;
+import com.cozycodr.ticket_support.model.dto.auth.AuthenticatedUser;
 import com.cozycodr.ticket_support.model.dto.auth.LoginRequest;
 import com.cozycodr.ticket_support.model.dto.auth.RegistrationRequest;
+import com.cozycodr.ticket_support.model.dto.auth.UserIdentity;
 import com.cozycodr.ticket_support.model.entity.User;
 import com.cozycodr.ticket_support.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,7 +15,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +26,7 @@ public class AuthenticationService {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
     private final AuditLogService auditLogService;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
@@ -43,8 +45,9 @@ public class AuthenticationService {
                 .build();
 
         userRepository.save(user);
+        userIdentityCache.invalidate(user.getUsername());
 
-        var token = jwtService.generateToken((UserDetails) user);
+        var token = jwtService.generateToken(AuthenticatedUser.from(user));
         var data = AuthDataResponse.builder()
                 .token(token)
                 .username(user.getUsername())
@@ -64,15 +67,17 @@ public class AuthenticationService {
                 )
         );
 
-        var user = userRepository.findByUsername(request.getUsername())
+        // Loaded into the cache by the authentication above, so this is not a second query
+        var user = userIdentityCache.findByUsername(request.getUsername())
+                .map(UserIdentity::toAuthenticatedUser)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         var token = jwtService.generateToken(user);
 
         var data = AuthDataResponse.builder()
                 .token(token)
-                .username(((UserDetails) user).getUsername())
-                .role((user).getRole().name())
+                .username(user.username())
+                .role(user.role().name())
                 .build();
 
         auditLogService.logNewUserLogin( user);
@@ -0,0 +1,199 @@
+package com.cozycodr.ticket_support.service;
+
+import com.cozycodr.ticket_support.exception.BadRequestException;
+import com.cozycodr.ticket_support.helpers.ApiResponseBody;
+import com.cozycodr.ticket_support.model.entity.IdempotencyKey;
+import com.cozycodr.ticket_support.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.cozycodr.ticket_support.helpers.SecurityHelpers.currentUser;
+
+/**
+ * Makes creating requests safe to retry. The first request with an Idempotency-Key runs and
+ * its response is stored in the same transaction as the write it made. Later requests of
+ * the same user with that key get the stored response back instead of writing again, until
+ * the key expires.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository keyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlSeconds;
+
+    private final ScheduledExecutorService purgeExecutor;
+    private final Counter storedCounter;
+    private final Counter replayedCounter;
+
+    public IdempotencyService(
+            IdempotencyKeyRepository keyRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${app.idempotency.purge-interval-ms:60000}") long purgeIntervalMs
+    ) {
+        this.keyRepository = keyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttlSeconds = ttlSeconds;
+
+        this.purgeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-key-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Purging often keeps each delete small, expired rows are never served in between
+        purgeExecutor.scheduleWithFixedDelay(this::purgeExpired,
+                purgeIntervalMs, purgeIntervalMs, TimeUnit.MILLISECONDS);
+
+        this.storedCounter = Counter.builder("idempotency.keys.stored").register(meterRegistry);
+        this.replayedCounter = Counter.builder("idempotency.keys.replayed").register(meterRegistry);
+    }
+
+    /**
+     * Runs a creating request at most once per Idempotency-Key of the current user
+     * @param idempotencyKey header value, the action simply runs when it is null
+     * @param operation method and path of the request, part of what a key is bound to
+     * @param request request body, part of what a key is bound to
+     * @param responseType type of the response body, to read back a stored response
+     * @param action the request handling, its transaction joins the one storing the key
+     * @return the response of the action, or the stored response of an earlier request
+     */
+    public <T> ResponseEntity<ApiResponseBody<T>> execute(
+            String idempotencyKey,
+            String operation,
+            Object request,
+            TypeReference<ApiResponseBody<T>> responseType,
+            Supplier<ResponseEntity<ApiResponseBody<T>>> action
+    ) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        UUID userId = currentUser().id();
+        String requestHash = requestHash(operation, request);
+
+        try {
+            return transactionTemplate.execute(status -> {
+                Optional<IdempotencyKey> stored = keyRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+                if (stored.isPresent()) {
+                    if (stored.get().getExpiresAt().isAfter(LocalDateTime.now())) {
+                        return replay(stored.get(), requestHash, responseType);
+                    }
+                    // Not purged yet, the key is free to be used again
+                    keyRepository.delete(stored.get());
+                    keyRepository.flush();
+                }
+
+                ResponseEntity<ApiResponseBody<T>> response = action.get();
+
+                LocalDateTime now = LocalDateTime.now();
+                keyRepository.saveAndFlush(IdempotencyKey.builder()
+                        .userId(userId)
+                        .idempotencyKey(idempotencyKey)
+                        .requestHash(requestHash)
+                        .responseStatus(response.getStatusCode().value())
+                        .responseBody(write(response.getBody()))
+                        .createdDate(now)
+                        .expiresAt(now.plusSeconds(ttlSeconds))
+                        .build());
+                storedCounter.increment();
+                return response;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first, this one's writes were
+            // rolled back together with its key, so answer with the winner's response
+            return keyRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .map(stored -> replay(stored, requestHash, responseType))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponseBody<T>> replay(
+            IdempotencyKey stored,
+            String requestHash,
+            TypeReference<ApiResponseBody<T>> responseType
+    ) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new BadRequestException(IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+        }
+        replayedCounter.increment();
+        try {
+            return ResponseEntity.status(stored.getResponseStatus())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readValue(stored.getResponseBody(), responseType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response of idempotency key " + stored.getId() + " is unreadable", e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be serialized", e);
+        }
+    }
+
+    private String requestHash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(write(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void purgeExpired() {
+        try {
+            Integer purged = transactionTemplate.execute(status -> keyRepository.deleteExpired(LocalDateTime.now()));
+            if (purged != null && purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (Exception e) {
+            log.warn("Purging expired idempotency keys failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        purgeExecutor.shutdownNow();
+    }
+}
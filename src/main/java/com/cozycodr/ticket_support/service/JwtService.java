@@ -1,6 +1,11 @@
 package com.cozycodr.ticket_support.service;
 
+import com.cozycodr.ticket_support.helpers.ExpiringCache;
+import com.cozycodr.ticket_support.model.dto.auth.AuthenticatedUser;
+import com.cozycodr.ticket_support.model.entity.User;
+import com.cozycodr.ticket_support.model.enums.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -8,20 +13,43 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${spring.security.jwt.secret-key}")
-    private String secretKey;
-
-    @Value("${spring.security.jwt.expiration}")
-    private Long expiration;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
+    private final Key signingKey;
+    private final JwtParser jwtParser;
+    private final long expiration;
+    private final ExpiringCache<String, Claims> verifiedTokens;
+
+    public JwtService(
+            @Value("${spring.security.jwt.secret-key}") String secretKey,
+            @Value("${spring.security.jwt.expiration}") long expiration,
+            @Value("${app.jwt.verified-cache.max-size:10000}") int verifiedCacheSize,
+            @Value("${app.jwt.verified-cache.ttl-seconds:300}") long verifiedCacheTtlSeconds
+    ) {
+        // Key and parser are immutable and thread safe, so both are built once
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.expiration = expiration;
+        this.verifiedTokens = new ExpiringCache<>(verifiedCacheSize, Duration.ofSeconds(verifiedCacheTtlSeconds));
+    }
 
     public String extractUsernameFromAuthHeader(String authHeader){
         final String jwt = authHeader.substring(7);
@@ -36,19 +64,79 @@ public class JwtService {
         return generateToken(new HashMap<>(), userDetails);
     }
 
+    /**
+     * Generates a token carrying the user's id and role, so requests can be
+     * authenticated from the token alone
+     * @param user the authenticated user
+     * @return signed JWT
+     */
+    public String generateToken(User user){
+        return generateToken(AuthenticatedUser.from(user));
+    }
+
+    public String generateToken(AuthenticatedUser user){
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, user.id().toString());
+        if (user.role() != null) {
+            claims.put(ROLE_CLAIM, user.role().name());
+        }
+        return generateToken(claims, user.username());
+    }
+
+    /**
+     * Builds the request principal from verified claims
+     * @param claims claims of a verified token
+     * @return the principal, or null for tokens issued without the id claim
+     */
+    public AuthenticatedUser extractAuthenticatedUser(Claims claims){
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        if (userId == null) {
+            return null;
+        }
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return new AuthenticatedUser(
+                UUID.fromString(userId),
+                claims.getSubject(),
+                role != null ? Role.valueOf(role) : null
+        );
+    }
+
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails){
+        return generateToken(extraClaims, userDetails.getUsername());
+    }
+
+    private String generateToken(Map<String, Object> extraClaims, String subject){
         return Jwts.builder()
                 .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
+                .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails){
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date());
+    }
+
+    /**
+     * Verifies a token and returns its claims. Tokens verified before are served
+     * from a bounded cache keyed by the token's hash until the token expires.
+     * @param token compact JWT
+     * @return verified claims, treat as read only
+     * @throws io.jsonwebtoken.JwtException when the token is invalid or expired
+     */
+    public Claims verifyToken(String token){
+        final String tokenHash = hash(token.trim());
+        Claims claims = verifiedTokens.get(tokenHash);
+        if (claims == null) {
+            claims = extractAllClaims(token);
+            long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+            verifiedTokens.put(tokenHash, claims, expiresAt);
+        }
+        return claims;
     }
 
     public boolean isTokenExpired(String token){
@@ -65,16 +153,23 @@ public class JwtService {
     }
 
     public Claims extractAllClaims(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token.trim())
                 .getBody();
     }
 
     public Key getSigningKey(){
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
+    }
+
+    private static String hash(String token){
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
 }
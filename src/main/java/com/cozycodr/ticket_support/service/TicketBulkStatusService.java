@@ -0,0 +1,196 @@
+package com.cozycodr.ticket_support.service;
+
+import com.cozycodr.ticket_support.exception.BadRequestException;
+import com.cozycodr.ticket_support.exception.UnauthorizedException;
+import com.cozycodr.ticket_support.helpers.ApiResponseBody;
+import com.cozycodr.ticket_support.model.dto.auth.AuthenticatedUser;
+import com.cozycodr.ticket_support.model.dto.ticket.BulkTicketStatusRequest;
+import com.cozycodr.ticket_support.model.dto.ticket.BulkTicketStatusResponse;
+import com.cozycodr.ticket_support.model.dto.ticket.BulkTicketStatusResponse.Outcome;
+import com.cozycodr.ticket_support.model.dto.ticket.BulkTicketStatusResponse.Result;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketFilter;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketStatusRow;
+import com.cozycodr.ticket_support.model.entity.Ticket;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import com.cozycodr.ticket_support.repository.TicketRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.cozycodr.ticket_support.helpers.ResponseHelpers.buildSuccessResponse;
+import static com.cozycodr.ticket_support.helpers.SecurityHelpers.currentUser;
+import static com.cozycodr.ticket_support.repository.TicketSpecifications.*;
+
+/**
+ * Changes the status of many tickets at once. Tickets are handled in chunks, each chunk
+ * in its own transaction: the current statuses are read and locked with one query and
+ * changed with one UPDATE, and the per-ticket audit events go through the write-behind
+ * audit pipeline, which stores them in batches.
+ */
+@Slf4j
+@Service
+public class TicketBulkStatusService {
+
+    private final TicketRepository ticketRepository;
+    private final AuditLogService auditLogService;
+    private final TicketChangeBroadcaster ticketChangeBroadcaster;
+    private final TicketStatsService ticketStatsService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxTickets;
+
+    public TicketBulkStatusService(
+            TicketRepository ticketRepository,
+            AuditLogService auditLogService,
+            TicketChangeBroadcaster ticketChangeBroadcaster,
+            TicketStatsService ticketStatsService,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.ticket-bulk.chunk-size:500}") int chunkSize,
+            @Value("${app.ticket-bulk.max-tickets:10000}") int maxTickets
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.auditLogService = auditLogService;
+        this.ticketChangeBroadcaster = ticketChangeBroadcaster;
+        this.ticketStatsService = ticketStatsService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxTickets = maxTickets;
+    }
+
+    /**
+     * Moves the given tickets, or every ticket matching the filter, to a status
+     * @param request the target status and either ticket ids or a filter
+     * @return counts and the outcome per ticket
+     */
+    public ResponseEntity<ApiResponseBody<BulkTicketStatusResponse>> updateTicketStatuses(BulkTicketStatusRequest request) {
+        AuthenticatedUser currentUser = currentUser();
+        if (!currentUser.isItSupport()) {
+            throw new UnauthorizedException("Only IT Support can update tickets in bulk");
+        }
+        if ((request.getTicketIds() == null) == (request.getFilter() == null)) {
+            throw new BadRequestException("Send either ticketIds or filter");
+        }
+
+        TicketStatus status = request.getStatus();
+        List<Result> results = new ArrayList<>();
+        boolean truncated = false;
+        try {
+            if (request.getTicketIds() != null) {
+                List<UUID> ticketIds = List.copyOf(new LinkedHashSet<>(request.getTicketIds()));
+                if (ticketIds.size() > maxTickets) {
+                    throw new BadRequestException("At most " + maxTickets + " tickets can be updated at once");
+                }
+                for (int from = 0; from < ticketIds.size(); from += chunkSize) {
+                    List<UUID> chunk = ticketIds.subList(from, Math.min(from + chunkSize, ticketIds.size()));
+                    results.addAll(updateChunk(chunk, status, currentUser));
+                }
+            } else {
+                Specification<Ticket> filter = filterSpecification(request.getFilter(), status);
+                UUID lastId = null;
+                while (true) {
+                    int limit = Math.min(chunkSize, maxTickets - results.size());
+                    if (limit == 0) {
+                        truncated = !findMatchingIds(filter, lastId, 1).isEmpty();
+                        break;
+                    }
+                    List<UUID> chunk = findMatchingIds(filter, lastId, limit);
+                    if (chunk.isEmpty()) {
+                        break;
+                    }
+                    results.addAll(updateChunk(chunk, status, currentUser));
+                    lastId = chunk.get(chunk.size() - 1);
+                }
+            }
+        } finally {
+            if (results.stream().anyMatch(result -> result.outcome() == Outcome.UPDATED)) {
+                // One resync for the whole request, rather than one event per ticket
+                ticketChangeBroadcaster.publishResync();
+            }
+        }
+
+        Map<Outcome, Long> counts = results.stream()
+                .collect(Collectors.groupingBy(Result::outcome, Collectors.counting()));
+        var data = BulkTicketStatusResponse.builder()
+                .status(status)
+                .updated(counts.getOrDefault(Outcome.UPDATED, 0L).intValue())
+                .unchanged(counts.getOrDefault(Outcome.UNCHANGED, 0L).intValue())
+                .notFound(counts.getOrDefault(Outcome.NOT_FOUND, 0L).intValue())
+                .truncated(truncated)
+                .results(results)
+                .build();
+        log.debug("Bulk status change to {} by {}: {} updated of {}",
+                status, currentUser.username(), data.getUpdated(), results.size());
+
+        return buildSuccessResponse(HttpStatus.OK, "Updated " + data.getUpdated() + " tickets", data);
+    }
+
+    private List<Result> updateChunk(List<UUID> ticketIds, TicketStatus status, AuthenticatedUser currentUser) {
+        return transactionTemplate.execute(tx -> {
+            Map<UUID, TicketStatusRow> rows = ticketRepository.findStatusRowsForUpdate(ticketIds).stream()
+                    .collect(Collectors.toMap(TicketStatusRow::id, Function.identity()));
+
+            List<TicketStatusRow> changed = rows.values().stream()
+                    .filter(row -> row.status() != status)
+                    .toList();
+            if (!changed.isEmpty()) {
+                ticketRepository.updateStatus(changed.stream().map(TicketStatusRow::id).toList(), status, LocalDateTime.now());
+                ticketStatsService.statusesChanged(changed, status);
+            }
+
+            List<Result> results = new ArrayList<>(ticketIds.size());
+            for (UUID ticketId : ticketIds) {
+                TicketStatusRow row = rows.get(ticketId);
+                if (row == null) {
+                    results.add(new Result(ticketId, Outcome.NOT_FOUND, null));
+                } else if (row.status() == status) {
+                    results.add(new Result(ticketId, Outcome.UNCHANGED, row.status()));
+                } else {
+                    auditLogService.logTicketStatusChange(row.status(), status, ticketId, currentUser);
+                    results.add(new Result(ticketId, Outcome.UPDATED, row.status()));
+                }
+            }
+            return results;
+        });
+    }
+
+    private Specification<Ticket> filterSpecification(TicketFilter filter, TicketStatus status) {
+        // Updated tickets no longer match, which is what lets the id keyset move on
+        return matching(filter).and(statusNot(status));
+    }
+
+    // Ids only, in id order after the last chunk, so matching never loads ticket rows
+    private List<UUID> findMatchingIds(Specification<Ticket> filter, UUID lastId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+        Predicate predicate = filter.and(idAfter(lastId)).toPredicate(ticket, query, cb);
+        query.select(ticket.get("id"));
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(ticket.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
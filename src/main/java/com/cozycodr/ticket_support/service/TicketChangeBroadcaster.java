@@ -0,0 +1,306 @@
+package com.cozycodr.ticket_support.service;
+
+import com.cozycodr.ticket_support.model.dto.auth.AuthenticatedUser;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.cozycodr.ticket_support.helpers.TransactionHelpers.afterCommit;
+
+/**
+ * Fans committed ticket changes out to Server-Sent Events subscribers.
+ * <p>
+ * Every event gets the next sequence number and is kept in a bounded replay log, so a
+ * client reconnecting with Last-Event-ID receives what it missed. Each connection has its
+ * own bounded buffer drained on a shared pool. A connection that falls too far behind is
+ * closed rather than slowing everyone down, and resumes from the replay log on reconnect.
+ */
+@Slf4j
+@Component
+public class TicketChangeBroadcaster {
+
+    // Sent when the requested position is no longer in the replay log, the client must refetch
+    public static final String RESYNC_EVENT = "RESYNC";
+
+    private final long emitterTimeoutMs;
+    private final int connectionBufferSize;
+    private final int replaySize;
+
+    // Distinguishes sequence numbers of this run from those of earlier runs
+    private final String runId = UUID.randomUUID().toString();
+    private final Deque<TicketChangeEvent> replayLog;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long lastSequence;
+
+    private final ExecutorService dispatchExecutor;
+    private final ScheduledExecutorService heartbeatExecutor;
+    private final Counter deliveredCounter;
+    private final Counter disconnectedCounter;
+
+    public TicketChangeBroadcaster(
+            MeterRegistry meterRegistry,
+            @Value("${app.ticket-stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${app.ticket-stream.connection-buffer-size:256}") int connectionBufferSize,
+            @Value("${app.ticket-stream.replay-size:1000}") int replaySize,
+            @Value("${app.ticket-stream.dispatch-threads:4}") int dispatchThreads,
+            @Value("${app.ticket-stream.heartbeat-interval-ms:25000}") long heartbeatIntervalMs
+    ) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.connectionBufferSize = connectionBufferSize;
+        this.replaySize = replaySize;
+        this.replayLog = new ArrayDeque<>(replaySize);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatchExecutor = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ticket-stream-dispatch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ticket-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Keeps idle connections open through proxies and detects clients that went away
+        heartbeatExecutor.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("tickets.stream.connections", subscribers, Set::size)
+                .description("Open ticket change stream connections")
+                .register(meterRegistry);
+        this.deliveredCounter = Counter.builder("tickets.stream.events.delivered").register(meterRegistry);
+        this.disconnectedCounter = Counter.builder("tickets.stream.slow.disconnects")
+                .description("Connections closed because their buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes a ticket change. When called inside a transaction the event is only
+     * published once that transaction commits.
+     * @param event the change, its sequence is assigned here
+     */
+    public void publish(TicketChangeEvent event) {
+        afterCommit(() -> broadcast(event));
+    }
+
+    /**
+     * Tells every subscriber to refetch, for bulk changes too large to send as single events.
+     * Positions from before the resync can no longer be replayed. Like {@link #publish},
+     * it takes effect once the current transaction commits.
+     */
+    public void publishResync() {
+        afterCommit(this::resyncAll);
+    }
+
+    /**
+     * Version of the ticket collection as a whole, it changes with every committed ticket change
+     * @return an opaque version string
+     */
+    public String collectionVersion() {
+        synchronized (replayLog) {
+            return eventId(lastSequence);
+        }
+    }
+
+    // Event ids carry the run, so an id from before a restart is never taken for a position in this run
+    private String eventId(long sequence) {
+        return runId + ":" + sequence;
+    }
+
+    /**
+     * Opens a stream for a user
+     * @param user the subscriber, employees only receive changes to their own tickets
+     * @param lastEventId id of the last event the client received, null for a new stream
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(AuthenticatedUser user, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(user, emitter, new ArrayBlockingQueue<>(connectionBufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Replay and registration happen under the publish lock, so no event is missed or sent twice
+        synchronized (replayLog) {
+            if (lastEventId != null) {
+                Long lastSequenceSeen = sequenceOf(lastEventId);
+                if (lastSequenceSeen == null) {
+                    subscriber.resync = true;
+                } else if (lastSequenceSeen != lastSequence) {
+                    replay(subscriber, lastSequenceSeen);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    // Sequence of an event id of this run, null for ids of earlier runs or ids that are not ours
+    private Long sequenceOf(String lastEventId) {
+        String prefix = runId + ":";
+        if (!lastEventId.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        TicketChangeEvent oldest = replayLog.peekFirst();
+        // Missed events were evicted from the log, or the id is ahead of this run
+        if (oldest == null || lastEventId < oldest.getSequence() - 1 || lastEventId > lastSequence) {
+            subscriber.resync = true;
+            return;
+        }
+        for (TicketChangeEvent event : replayLog) {
+            if (event.getSequence() > lastEventId && subscriber.canSee(event) && !subscriber.buffer.offer(event)) {
+                subscriber.resync = true;
+                subscriber.buffer.clear();
+                return;
+            }
+        }
+    }
+
+    private void broadcast(TicketChangeEvent change) {
+        synchronized (replayLog) {
+            TicketChangeEvent event = change.toBuilder().sequence(++lastSequence).build();
+            if (replayLog.size() == replaySize) {
+                replayLog.removeFirst();
+            }
+            replayLog.addLast(event);
+
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.canSee(event)) {
+                    continue;
+                }
+                if (!subscriber.buffer.offer(event)) {
+                    // The client reconnects with its Last-Event-ID and catches up from the replay log
+                    disconnectedCounter.increment();
+                    subscribers.remove(subscriber);
+                    subscriber.emitter.complete();
+                    continue;
+                }
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void resyncAll() {
+        synchronized (replayLog) {
+            // Bumps the collection version and makes every older Last-Event-ID resync
+            lastSequence++;
+            replayLog.clear();
+            for (Subscriber subscriber : subscribers) {
+                subscriber.buffer.clear();
+                subscriber.resync = true;
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatchExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.resync) {
+                subscriber.resync = false;
+                // Every change up to the current sequence is committed, so the refetch includes it
+                // and the client can reconnect from here instead of resyncing again
+                String resyncId;
+                synchronized (replayLog) {
+                    resyncId = eventId(lastSequence);
+                }
+                subscriber.emitter.send(SseEmitter.event().id(resyncId).name(RESYNC_EVENT).data(""));
+            }
+            TicketChangeEvent event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(eventId(event.getSequence()))
+                        .name(event.getType().name())
+                        .data(event, MediaType.APPLICATION_JSON));
+                deliveredCounter.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, or the emitter already completed
+            subscribers.remove(subscriber);
+            subscriber.buffer.clear();
+            log.debug("Closed ticket stream of {}: {}", subscriber.user.username(), e.getMessage());
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event or resync may have arrived after the last poll but before the flag was cleared
+        if ((subscriber.resync || !subscriber.buffer.isEmpty()) && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : List.copyOf(subscribers)) {
+            dispatchExecutor.execute(() -> {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(subscriber);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeatExecutor.shutdownNow();
+        for (Subscriber subscriber : List.copyOf(subscribers)) {
+            subscriber.emitter.complete();
+        }
+        dispatchExecutor.shutdown();
+    }
+
+    private static final class Subscriber {
+        private final AuthenticatedUser user;
+        private final SseEmitter emitter;
+        private final BlockingQueue<TicketChangeEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean resync;
+
+        private Subscriber(AuthenticatedUser user, SseEmitter emitter, BlockingQueue<TicketChangeEvent> buffer) {
+            this.user = user;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        private boolean canSee(TicketChangeEvent event) {
+            return user.isItSupport() || user.id().equals(event.getTicketOwnerId());
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.cozycodr.ticket_support.service;
+
+import com.cozycodr.ticket_support.model.dto.comments.CommentExportRow;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketExportRecord;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketExportRow;
+import com.cozycodr.ticket_support.model.entity.Ticket;
+import com.cozycodr.ticket_support.model.entity.User;
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketFileFormat;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import com.cozycodr.ticket_support.repository.CommentRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.cozycodr.ticket_support.helpers.SecurityHelpers.currentUser;
+import static com.cozycodr.ticket_support.repository.TicketSpecifications.*;
+
+/**
+ * Streams tickets straight from a forward-only database cursor to the response, one row
+ * at a time. Comments are loaded per chunk of tickets with a single query, so memory
+ * use depends on the chunk size and never on the number of exported tickets.
+ */
+@Slf4j
+@Service
+public class TicketExportService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final List<String> TICKET_COLUMNS = List.of(
+            "ticket_id", "title", "description", "status", "priority", "category",
+            "created_by", "created_date", "updated_date");
+    private static final List<String> COMMENT_COLUMNS = List.of(
+            "comment_id", "comment_by", "comment_date", "comment_message");
+
+    private final EntityManager entityManager;
+    private final CommentRepository commentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+    private final int chunkSize;
+
+    public TicketExportService(
+            EntityManager entityManager,
+            CommentRepository commentRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.ticket-export.fetch-size:500}") int fetchSize,
+            @Value("${app.ticket-export.chunk-size:500}") int chunkSize
+    ) {
+        this.entityManager = entityManager;
+        this.commentRepository = commentRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Exports tickets oldest first. IT Support exports all tickets, other users their own.
+     * @param format NDJSON, one ticket with its comments per line, or CSV, one row per comment
+     * @param status only tickets in this status, optional
+     * @param category only tickets of this category, optional
+     * @param from inclusive lower bound of the creation time, optional
+     * @param to exclusive upper bound of the creation time, optional
+     * @param includeComments whether comments are exported with their tickets
+     * @return the export, written once the response is committed
+     */
+    public ResponseEntity<StreamingResponseBody> exportTickets(
+            TicketFileFormat format, TicketStatus status, TicketCategory category,
+            LocalDateTime from, LocalDateTime to, boolean includeComments
+    ) {
+        // Resolved here, the body is written on another thread
+        var user = currentUser();
+        Specification<Ticket> filter = Specification.where(hasStatus(status))
+                .and(hasCategory(category))
+                .and(createdFrom(from))
+                .and(createdBefore(to))
+                .and(raisedBy(user.isItSupport() ? null : user.id()));
+
+        StreamingResponseBody body = out -> {
+            long start = System.nanoTime();
+            try {
+                long rows = transactionTemplate.execute(tx -> {
+                    try {
+                        return writeExport(filter, format, includeComments, out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.debug("Exported {} tickets as {} for {} in {} ms", rows, format, user.username(),
+                        (System.nanoTime() - start) / 1_000_000);
+            } catch (UncheckedIOException e) {
+                // Usually the client went away, the cursor is closed with the transaction
+                throw e.getCause();
+            }
+        };
+
+        String filename = "tickets-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "." + format.extension();
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private long writeExport(Specification<Ticket> filter, TicketFileFormat format, boolean includeComments,
+                             OutputStream out) throws IOException {
+        ExportWriter writer = format == TicketFileFormat.CSV
+                ? new CsvExportWriter(out, includeComments)
+                : new NdjsonExportWriter(out, objectMapper, includeComments);
+
+        long rows = 0;
+        List<TicketExportRow> chunk = new ArrayList<>(chunkSize);
+        try (Stream<TicketExportRow> tickets = streamTickets(filter)) {
+            Iterator<TicketExportRow> iterator = tickets.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, includeComments, writer);
+                    rows += chunk.size();
+                    chunk.clear();
+                }
+            }
+            writeChunk(chunk, includeComments, writer);
+            rows += chunk.size();
+        }
+        writer.finish();
+        return rows;
+    }
+
+    private void writeChunk(List<TicketExportRow> chunk, boolean includeComments, ExportWriter writer)
+            throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<CommentExportRow>> comments = includeComments
+                ? commentRepository.findExportRowsByTicketIds(chunk.stream().map(TicketExportRow::id).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(CommentExportRow::ticketId))
+                : Map.of();
+        for (TicketExportRow ticket : chunk) {
+            writer.write(ticket, comments.getOrDefault(ticket.id(), List.of()));
+        }
+        // Hands the chunk to the client instead of holding it in the response buffer
+        writer.flush();
+    }
+
+    // Constructor projection, so rows are never managed entities that pile up in the session
+    private Stream<TicketExportRow> streamTickets(Specification<Ticket> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketExportRow> query = cb.createQuery(TicketExportRow.class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+        Join<Ticket, User> raisedBy = ticket.join("raisedBy");
+
+        query.select(cb.construct(TicketExportRow.class,
+                ticket.get("id"), ticket.get("title"), ticket.get("description"), ticket.get("status"),
+                ticket.get("priority"), ticket.get("category"), raisedBy.get("username"),
+                ticket.get("createdDate"), ticket.get("updatedDate")));
+        Predicate predicate = filter.toPredicate(ticket, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(ticket.get("createdDate")), cb.asc(ticket.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private interface ExportWriter {
+        void write(TicketExportRow ticket, List<CommentExportRow> comments) throws IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class NdjsonExportWriter implements ExportWriter {
+        private final ObjectMapper objectMapper;
+        private final JsonGenerator generator;
+        private final boolean includeComments;
+
+        NdjsonExportWriter(OutputStream out, ObjectMapper objectMapper, boolean includeComments) throws IOException {
+            this.objectMapper = objectMapper;
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.includeComments = includeComments;
+        }
+
+        @Override
+        public void write(TicketExportRow ticket, List<CommentExportRow> comments) throws IOException {
+            objectMapper.writeValue(generator, new TicketExportRecord(ticket, includeComments ? comments : null));
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvExportWriter implements ExportWriter {
+        private final Writer writer;
+        private final boolean includeComments;
+
+        CsvExportWriter(OutputStream out, boolean includeComments) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.includeComments = includeComments;
+
+            List<String> header = new ArrayList<>(TICKET_COLUMNS);
+            if (includeComments) {
+                header.addAll(COMMENT_COLUMNS);
+            }
+            writeRecord(header);
+        }
+
+        // One row per comment, tickets without comments get a single row with empty comment columns
+        @Override
+        public void write(TicketExportRow ticket, List<CommentExportRow> comments) throws IOException {
+            List<Object> ticketValues = List.of(ticket.id(), ticket.title(), ticket.description(), ticket.status(),
+                    ticket.priority(), ticket.category(), ticket.createdBy(), ticket.createdDate(),
+                    ticket.updatedDate() == null ? "" : ticket.updatedDate());
+            if (!includeComments) {
+                writeRecord(ticketValues);
+                return;
+            }
+            if (comments.isEmpty()) {
+                List<Object> values = new ArrayList<>(ticketValues);
+                COMMENT_COLUMNS.forEach(column -> values.add(""));
+                writeRecord(values);
+                return;
+            }
+            for (CommentExportRow comment : comments) {
+                List<Object> values = new ArrayList<>(ticketValues);
+                values.add(comment.id());
+                values.add(comment.commenter());
+                values.add(comment.createdDate());
+                values.add(comment.message());
+                writeRecord(values);
+            }
+        }
+
+        private void writeRecord(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(String.valueOf(values.get(i))));
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: fields holding a separator, quote or line break are quoted, quotes doubled
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.cozycodr.ticket_support.service;
+
+import com.cozycodr.ticket_support.exception.BadRequestException;
+import com.cozycodr.ticket_support.helpers.ApiResponseBody;
+import com.cozycodr.ticket_support.helpers.CsvReader;
+import com.cozycodr.ticket_support.model.dto.auth.AuthenticatedUser;
+import com.cozycodr.ticket_support.model.dto.ticket.CreateTicketRequest;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketImportResponse;
+import com.cozycodr.ticket_support.model.entity.Ticket;
+import com.cozycodr.ticket_support.model.entity.User;
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketFileFormat;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.repository.TicketRepository;
+import com.cozycodr.ticket_support.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static com.cozycodr.ticket_support.helpers.ResponseHelpers.buildSuccessResponse;
+import static com.cozycodr.ticket_support.helpers.SecurityHelpers.currentUser;
+
+/**
+ * Imports tickets from an NDJSON or CSV upload. The file is parsed one row at a time and
+ * valid rows are inserted in chunks, each chunk in its own transaction with JDBC batching
+ * and a single audit summary. Invalid rows are reported and skipped, they never abort the
+ * rest of the file.
+ */
+@Slf4j
+@Service
+public class TicketImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("title", "description", "priority", "category");
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final AuditLogService auditLogService;
+    private final TicketChangeBroadcaster ticketChangeBroadcaster;
+    private final TicketStatsService ticketStatsService;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public TicketImportService(
+            TicketRepository ticketRepository,
+            UserRepository userRepository,
+            AuditLogService auditLogService,
+            TicketChangeBroadcaster ticketChangeBroadcaster,
+            TicketStatsService ticketStatsService,
+            Validator validator,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.ticket-import.chunk-size:1000}") int chunkSize
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+        this.auditLogService = auditLogService;
+        this.ticketChangeBroadcaster = ticketChangeBroadcaster;
+        this.ticketStatsService = ticketStatsService;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(CreateTicketRequest.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports tickets raised by the current user
+     * @param contentType application/x-ndjson, one CreateTicketRequest per line, or text/csv
+     *                    with a header naming the title, description, priority and category columns
+     * @param body the uploaded file, read as it arrives
+     * @return counts of received, imported and failed rows, with the first errors
+     */
+    public ResponseEntity<ApiResponseBody<TicketImportResponse>> importTickets(String contentType, InputStream body)
+            throws IOException {
+        TicketFileFormat format = TicketFileFormat.fromContentType(contentType);
+        Import run = new Import(currentUser());
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            if (format == TicketFileFormat.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } finally {
+            if (run.imported > 0) {
+                // One resync for the whole file, rather than one event per imported ticket
+                ticketChangeBroadcaster.publishResync();
+            }
+            log.debug("Imported {} of {} tickets for {}", run.imported, run.received, run.user.username());
+        }
+
+        var data = TicketImportResponse.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .failed(run.failed)
+                .errors(run.errors)
+                .errorsTruncated(run.failed > run.errors.size())
+                .build();
+
+        return buildSuccessResponse(HttpStatus.OK, "Imported " + run.imported + " of " + run.received + " tickets", data);
+    }
+
+    private void readNdjson(BufferedReader reader, Import run) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long row = ++run.received;
+            try {
+                run.accept(row, requestReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                run.reject(row, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Import run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        int[] positions = new int[CSV_COLUMNS.size()];
+        List<String> columns = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            positions[i] = columns.indexOf(CSV_COLUMNS.get(i));
+            if (positions[i] < 0) {
+                throw new BadRequestException("CSV header must name the columns " + String.join(", ", CSV_COLUMNS));
+            }
+        }
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            long row = ++run.received;
+            if (record.size() < header.size()) {
+                run.reject(row, "Expected " + header.size() + " fields, found " + record.size());
+                continue;
+            }
+            try {
+                CreateTicketRequest request = new CreateTicketRequest();
+                request.setTitle(record.get(positions[0]));
+                request.setDescription(record.get(positions[1]));
+                request.setPriority(TicketPriority.valueOf(record.get(positions[2]).trim().toUpperCase(Locale.ROOT)));
+                request.setCategory(TicketCategory.valueOf(record.get(positions[3]).trim().toUpperCase(Locale.ROOT)));
+                run.accept(row, request);
+            } catch (IllegalArgumentException e) {
+                run.reject(row, "Unknown priority or category");
+            }
+        }
+    }
+
+    /**
+     * State of one import, holding at most one chunk of tickets
+     */
+    private final class Import {
+        private final AuthenticatedUser user;
+        private final List<Long> chunkRows = new ArrayList<>();
+        private final List<CreateTicketRequest> chunk = new ArrayList<>();
+        private final List<TicketImportResponse.RowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        private Import(AuthenticatedUser user) {
+            this.user = user;
+        }
+
+        private void accept(long row, CreateTicketRequest request) {
+            // A JSON null line parses to no request at all
+            if (request == null) {
+                reject(row, "Expected a ticket object");
+                return;
+            }
+            var violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            chunkRows.add(row);
+            chunk.add(request);
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        private void reject(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new TicketImportResponse.RowError(row, message));
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    User reporter = userRepository.getReferenceById(user.id());
+                    List<Ticket> tickets = chunk.stream()
+                            .map(request -> Ticket.builder()
+                                    .title(request.getTitle())
+                                    .description(request.getDescription())
+                                    .priority(request.getPriority())
+                                    .category(request.getCategory())
+                                    .raisedBy(reporter)
+                                    .build())
+                            .toList();
+                    // Ids are generated in the application, so Hibernate batches the inserts
+                    ticketRepository.saveAll(tickets);
+                    ticketRepository.flush();
+                    auditLogService.logTicketsImported(user, chunk.size());
+                    ticketStatsService.ticketsCreated(tickets);
+                });
+                imported += chunk.size();
+            } catch (RuntimeException e) {
+                log.warn("Import chunk of {} tickets failed", chunk.size(), e);
+                chunkRows.forEach(row -> reject(row, "Could not be saved, see the server log"));
+            }
+            chunkRows.clear();
+            chunk.clear();
+        }
+    }
+}
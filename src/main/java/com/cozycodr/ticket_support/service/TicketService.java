@@ -1,34 +1,47 @@
 package com.cozycodr.ticket_support.service;
 
+import com.cozycodr.ticket_support.exception.BadRequestException;
 import com.cozycodr.ticket_support.exception.ResourceNotFoundException;
 import com.cozycodr.ticket_support.helpers.ApiResponseBody;
+import com.cozycodr.ticket_support.helpers.ETags;
+import com.cozycodr.ticket_support.helpers.PageCursor;
 import com.cozycodr.ticket_support.model.dto.*;
+import com.cozycodr.ticket_support.model.dto.auth.AuthenticatedUser;
 import com.cozycodr.ticket_support.model.dto.comments.AddCommentRequest;
 import com.cozycodr.ticket_support.model.dto.comments.CommentResponse;
+import com.cozycodr.ticket_support.model.dto.comments.CommentRow;
 import com.cozycodr.ticket_support.model.dto.comments.Commenter;
 import com.cozycodr.ticket_support.model.dto.comments.SingleCommentResponse;
 import com.cozycodr.ticket_support.model.dto.ticket.*;
 import com.cozycodr.ticket_support.model.entity.Comment;
 import com.cozycodr.ticket_support.model.entity.Ticket;
 import com.cozycodr.ticket_support.model.entity.User;
+import com.cozycodr.ticket_support.model.enums.TicketChangeType;
 import com.cozycodr.ticket_support.model.enums.TicketStatus;
 import com.cozycodr.ticket_support.repository.CommentRepository;
 import com.cozycodr.ticket_support.repository.TicketRepository;
 import com.cozycodr.ticket_support.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import static com.cozycodr.ticket_support.helpers.ResponseHelpers.buildNotModifiedResponse;
 import static com.cozycodr.ticket_support.helpers.ResponseHelpers.buildSuccessResponse;
+import static com.cozycodr.ticket_support.helpers.SecurityHelpers.currentUser;
+import static com.cozycodr.ticket_support.repository.TicketSpecifications.after;
+import static com.cozycodr.ticket_support.repository.TicketSpecifications.matching;
 
 @Slf4j
 @Service
@@ -39,21 +52,20 @@ public class TicketService {
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final AuditLogService auditLogService;
-    private final JwtService jwtService;
+    private final TicketChangeBroadcaster ticketChangeBroadcaster;
+    private final TicketStatsService ticketStatsService;
 
     /**
      * Creates a New Ticket
      * @param request contains details of ticket
-     * @param authHeader authorization header
      * @return TicketResponse, details of newly created ticket
      */
     @Transactional
-    public ResponseEntity<ApiResponseBody<TicketResponse>> createTicket(CreateTicketRequest request, String authHeader) {
+    public ResponseEntity<ApiResponseBody<TicketResponse>> createTicket(CreateTicketRequest request) {
 
-        String username = jwtService.extractUsernameFromAuthHeader(authHeader);
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found!"));
+        // The principal carries the user id, a reference is enough for the foreign key
+        AuthenticatedUser currentUser = currentUser();
+        User user = userRepository.getReferenceById(currentUser.id());
 
         Ticket newTicket = Ticket.builder()
                 .title(request.getTitle())
@@ -62,14 +74,21 @@ public class TicketService {
                 .category(request.getCategory())
                 .raisedBy(user)
                 .build();
+        // Ticket owns raised_by_id, so the user's ticketsRaised collection is never touched
         ticketRepository.save(newTicket);
 
-        // Link to User
-        user.addTicket(newTicket);
-        userRepository.save(user);
-
         // Create Log
-        auditLogService.logNewTicketCreated(user, newTicket);
+        auditLogService.logNewTicketCreated(currentUser, newTicket);
+        ticketStatsService.ticketsCreated(List.of(newTicket));
+        ticketChangeBroadcaster.publish(TicketChangeEvent.builder()
+                .type(TicketChangeType.TICKET_CREATED)
+                .ticketId(newTicket.getId())
+                .ticketOwnerId(currentUser.id())
+                .ticket(new TicketSummaryResponse(newTicket.getId(), newTicket.getTitle(), newTicket.getStatus(),
+                        newTicket.getPriority(), newTicket.getCategory(), currentUser.username(),
+                        newTicket.getCreatedDate()))
+                .occurredAt(LocalDateTime.now())
+                .build());
 
         var data = buildTicketResponse(newTicket);
 
@@ -84,104 +103,213 @@ public class TicketService {
     /**
      *  Fetches a ticket by its ID
      * @param ticketId id of the ticket to be fetched
-     * @return TicketResponse, details of the ticket to be returned
+     * @param ifNoneMatch entity tag of the client's copy, optional
+     * @return TicketResponse, details of the ticket to be returned, or 304 when the client's copy is current
      */
     @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponseBody<SingleTicketResponse>> getTicketById(UUID ticketId){
+    public ResponseEntity<ApiResponseBody<SingleTicketResponse>> getTicketById(UUID ticketId, String ifNoneMatch){
+        if (ifNoneMatch != null) {
+            // Revalidation reads two timestamps instead of the ticket and its comments
+            TicketVersion version = ticketRepository.findTicketVersion(ticketId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Ticket Not Found"));
+            String etag = ticketETag(ticketId, version.updatedDate(), version.lastCommentDate());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return buildNotModifiedResponse(etag);
+            }
+        }
+
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket Not Found"));
 
-        Pageable pageable = PageRequest.of(0, 10);
-
-        // Get Last 10 comments on ticket
-        List<Comment> comments = commentRepository
-                .findAllByTicket_IdOrderByCreatedDateDesc(ticketId, pageable);
+        // Get Last 10 comments on ticket, with their commenters in the same query
+        List<CommentRow> comments = commentRepository.findFirstCommentRows(ticketId, Limit.of(10));
 
         var data = buildSingleTicketResponse(buildTicketResponse(ticket, comments));
+        String etag = ticketETag(ticketId, ticket.getUpdatedDate(),
+                comments.isEmpty() ? null : comments.get(0).createdDate());
 
-        return buildSuccessResponse(HttpStatus.OK, "Fetched ticket", data);
+        return buildSuccessResponse(HttpStatus.OK, "Fetched ticket", data, etag);
+
+    }
+
+    /**
+     * Fetches comments of a ticket newest first, using keyset pagination
+     * @param ticketId id of the ticket
+     * @param cursor opaque cursor from the previous page, blank for the first page
+     * @param limit number of comments per page
+     * @return a page of comments and the cursor of the next, older page
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<ApiResponseBody<PageResponse<CommentResponse>>> getTicketComments(UUID ticketId, String cursor, int limit){
+        PageCursor position = PageCursor.decode(cursor);
+        List<CommentRow> rows = position == null
+                ? commentRepository.findFirstCommentRows(ticketId, keysetLimit(limit))
+                : commentRepository.findCommentRowsAfter(ticketId, position.createdDate(), position.id(), keysetLimit(limit));
+        // An empty page is the only case that needs telling a missing ticket apart
+        if (rows.isEmpty() && !ticketRepository.existsById(ticketId)) {
+            throw new ResourceNotFoundException("Ticket Not Found");
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<CommentRow> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            CommentRow lastComment = page.get(page.size() - 1);
+            nextCursor = new PageCursor(lastComment.createdDate(), lastComment.id()).encode();
+        }
+
+        var data = PageResponse.<CommentResponse>builder()
+                .content(page.stream().map(this::buildCommentResponse).toList())
+                .pageSize(limit)
+                .first(position == null)
+                .last(!hasNext)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
 
+        return buildSuccessResponse(HttpStatus.OK, "Fetched comments", data);
     }
 
     /**
-     * Fetches tickets created by a user
-     * @param authHeader authorizationHeader
+     * Fetches tickets created by the current user
      * @param page page number of tickets, default is 1
      * @param size size of tickets per page, default is 10
      * @return a list of the users tickets
      */
     @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponseBody<TicketDataResponse<TicketListResponse>>> getTicketsByCreator(String authHeader, int page, int size){
-        System.out.println("Extracting user name");
-        String username = jwtService.extractUsernameFromAuthHeader(authHeader);
-        System.out.println("Done");
+    public ResponseEntity<ApiResponseBody<TicketDataResponse<TicketListResponse>>> getTicketsByCreator(int page, int size, String ifNoneMatch){
+        UUID userId = currentUser().id();
+        String etag = listETag(userId, page, size);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return buildNotModifiedResponse(etag);
+        }
 
         Pageable pageable = PageRequest.of((page - 1), size);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        Page<Ticket> tickets = ticketRepository.findTicketsByRaisedBy(user, pageable);
+        Page<TicketSummaryResponse> tickets = ticketRepository.findTicketSummariesByRaisedBy(userId, pageable);
         TicketListResponse response = buildTicketListResponse(tickets.getContent());
 
         var data = TicketDataResponse.from(response);
-        return buildSuccessResponse(HttpStatus.OK, "Fetched tickets", data);
+        return buildSuccessResponse(HttpStatus.OK, "Fetched tickets", data, etag);
+    }
+
+    /**
+     * Fetches a page of tickets created by the current user using keyset pagination
+     * @param cursor opaque cursor from the previous page, blank for the first page
+     * @param size size of tickets per page
+     * @return a list of the users tickets and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<ApiResponseBody<TicketDataResponse<TicketListResponse>>> getTicketsByCreator(String cursor, int size, String ifNoneMatch){
+        UUID userId = currentUser().id();
+        String etag = listETag(userId, cursor, size);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return buildNotModifiedResponse(etag);
+        }
+
+        PageCursor position = PageCursor.decode(cursor);
+        Limit limit = keysetLimit(size);
+
+        List<TicketSummaryResponse> tickets = position == null
+                ? ticketRepository.findFirstTicketSummariesByRaisedBy(userId, limit)
+                : ticketRepository.findTicketSummariesByRaisedByAfter(userId, position.createdDate(), position.id(), limit);
+
+        List<TicketSummaryResponse> page = trimKeysetPage(tickets, size);
+        TicketListResponse response = buildTicketListResponse(page);
+        response.setNextCursor(nextCursor(tickets, page));
+
+        var data = TicketDataResponse.from(response);
+        return buildSuccessResponse(HttpStatus.OK, "Fetched tickets", data, etag);
     }
 
     /**
      * Fetches Paginated List of tickets
+     * @param filter facets the tickets must match, absent ones are ignored
      * @param page page number
      * @param size of tickets per page to be returned
      * @return a page of the tickets
      */
     @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponseBody<TicketDataResponse<PageResponse<TicketResponse>>>> getTickets(int page, int size){
+    public ResponseEntity<ApiResponseBody<TicketDataResponse<PageResponse<TicketSummaryResponse>>>> getTickets(
+            TicketFilter filter, int page, int size, String ifNoneMatch){
+        String etag = listETag(filter, page, size);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return buildNotModifiedResponse(etag);
+        }
+
         Pageable pageable = PageRequest.of((page - 1), size);
-        Page<Ticket> tickets = ticketRepository.findAllTicketsOrderByCreatedDateDesc(pageable);
-        PageResponse<TicketResponse> response = buildTicketPageResponse(tickets);
+        Page<TicketSummaryResponse> tickets = ticketRepository.findTicketSummaries(matching(filter), pageable);
+        PageResponse<TicketSummaryResponse> response = buildTicketPageResponse(tickets);
+
+        var data = TicketDataResponse.from(response);
+        return buildSuccessResponse(HttpStatus.OK, "Fetched tickets", data, etag);
+    }
+
+    /**
+     * Fetches a page of tickets using keyset pagination, page N costs the same as page 1
+     * @param filter facets the tickets must match, absent ones are ignored
+     * @param cursor opaque cursor from the previous page, blank for the first page
+     * @param size of tickets per page to be returned
+     * @return a page of the tickets and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<ApiResponseBody<TicketDataResponse<PageResponse<TicketSummaryResponse>>>> getTickets(
+            TicketFilter filter, String cursor, int size, String ifNoneMatch){
+        String etag = listETag(filter, cursor, size);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return buildNotModifiedResponse(etag);
+        }
+
+        PageCursor position = PageCursor.decode(cursor);
+        Limit limit = keysetLimit(size);
+
+        Specification<Ticket> query = matching(filter);
+        if (position != null) {
+            query = query.and(after(position.createdDate(), position.id()));
+        }
+        List<TicketSummaryResponse> tickets = ticketRepository.findTicketSummaries(query, limit);
+        PageResponse<TicketSummaryResponse> response = buildTicketCursorPageResponse(tickets, size, position == null);
 
         var data = TicketDataResponse.from(response);
-        return buildSuccessResponse(HttpStatus.OK, "Fetched tickets", data);
+        return buildSuccessResponse(HttpStatus.OK, "Fetched tickets", data, etag);
     }
 
     /**
      * Add a comment to an existing ticket
      * @param ticketId Id of the ticket to which the comment will be added
      * @param body request body with the message
-     * @param authHeader authorization header
      * @return the created comment
      */
-    @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponseBody<SingleCommentResponse>> addCommentTicket(UUID ticketId, AddCommentRequest body, String authHeader) {
+    @Transactional
+    public ResponseEntity<ApiResponseBody<SingleCommentResponse>> addCommentTicket(UUID ticketId, AddCommentRequest body) {
 
-        // Get User ID from auth Header and Fetch User
-        String username = jwtService.extractUsernameFromAuthHeader(authHeader);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Invalid User ID"));
+        AuthenticatedUser currentUser = currentUser();
 
-        Ticket ticket = ticketRepository.findById(ticketId)
+        // Only the foreign key and the owner are needed, so skip loading the ticket row
+        UUID ticketOwnerId = ticketRepository.findRaisedByIdById(ticketId)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket Not Found"));
+        Ticket ticket = ticketRepository.getReferenceById(ticketId);
 
-        // Create Comment
+        // Create Comment, the comment row owns both relations so this is the only write
         Comment comment = Comment.builder()
                 .message(body.getMessage())
                 .ticket(ticket)
-                .commenter(user)
+                .commenter(userRepository.getReferenceById(currentUser.id()))
                 .build();
         commentRepository.save(comment);
 
-        // Add comment to user
-        user.addComment(comment);
-        userRepository.save(user);
-
-        // Add Comment to ticket
-        ticket.addComment(comment);
-        ticketRepository.save(ticket);
-
         // log
-        auditLogService.logCommentAddedToTicket(comment, ticket, user);
+        auditLogService.logCommentAddedToTicket(comment, ticket, currentUser);
 
         // Build data
-        var data = buildSingleCommentResponse(buildCommentResponse(comment));
+        CommentResponse commentResponse = buildCommentResponse(comment, buildCommenter(currentUser));
+        ticketChangeBroadcaster.publish(TicketChangeEvent.builder()
+                .type(TicketChangeType.COMMENT_ADDED)
+                .ticketId(ticketId)
+                .ticketOwnerId(ticketOwnerId)
+                .comment(commentResponse)
+                .occurredAt(LocalDateTime.now())
+                .build());
+        var data = buildSingleCommentResponse(commentResponse);
 
         return buildSuccessResponse(HttpStatus.CREATED, "New Comment added", data);
     }
@@ -190,17 +318,12 @@ public class TicketService {
      * Updates the value of TicketStatus on a ticket
      * @param ticketId ID of the ticket whose status is being updated
      * @param body request body containing the new status
-     * @param authHeader authorization header
      * @return an updated ticket
      */
     @Transactional
-    public ResponseEntity<ApiResponseBody<SingleTicketResponse>> updateTicketStatus(UUID ticketId, UpdateTicketStatusRequest body, String authHeader) {
+    public ResponseEntity<ApiResponseBody<SingleTicketResponse>> updateTicketStatus(UUID ticketId, UpdateTicketStatusRequest body) {
         TicketStatus beforeStatus;
-
-        // Get User ID from auth Header and Fetch User
-        String username = jwtService.extractUsernameFromAuthHeader(authHeader);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Invalid User ID"));
+        AuthenticatedUser currentUser = currentUser();
 
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket Not Found"));
@@ -213,7 +336,16 @@ public class TicketService {
         ticketRepository.save(ticket);
 
         // log
-        auditLogService.logTicketStatusChange(beforeStatus, body.getStatus(), ticket, user);
+        auditLogService.logTicketStatusChange(beforeStatus, body.getStatus(), ticket, currentUser);
+        ticketStatsService.statusChanged(ticket, beforeStatus);
+        ticketChangeBroadcaster.publish(TicketChangeEvent.builder()
+                .type(TicketChangeType.TICKET_STATUS_CHANGED)
+                .ticketId(ticketId)
+                .ticketOwnerId(ticket.getRaisedBy().getId())
+                .previousStatus(beforeStatus)
+                .status(body.getStatus())
+                .occurredAt(LocalDateTime.now())
+                .build());
 
         // Build Data Object
         var data = buildSingleTicketResponse(buildTicketResponse(ticket));
@@ -223,14 +355,9 @@ public class TicketService {
 
 
     // ============= UTIL METHODS =================
-    public PageResponse<TicketResponse> buildTicketPageResponse(Page<Ticket> ticketsPage) {
-        List<TicketResponse> content = ticketsPage.getContent()
-                .stream()
-                .map(this::buildTicketResponse)
-                .toList();
-
-        return PageResponse.<TicketResponse>builder()
-                .content(content)
+    public PageResponse<TicketSummaryResponse> buildTicketPageResponse(Page<TicketSummaryResponse> ticketsPage) {
+        return PageResponse.<TicketSummaryResponse>builder()
+                .content(ticketsPage.getContent())
                 .pageSize(ticketsPage.getSize())
                 .totalPages(ticketsPage.getTotalPages())
                 .totalElements(ticketsPage.getTotalElements())
@@ -240,10 +367,63 @@ public class TicketService {
                 .build();
     }
 
-    public TicketListResponse buildTicketListResponse(List<Ticket> tickets){
-        var ticketList = tickets.stream().map(this::buildTicketResponse).toList();
+    /**
+     * Builds a cursor mode page from a keyset query that fetched one row more than requested
+     * @param tickets rows returned by the keyset query, at most size + 1
+     * @param size requested page size
+     * @param first whether this is the first page
+     * @return a page without totals, carrying the cursor of the next page
+     */
+    public PageResponse<TicketSummaryResponse> buildTicketCursorPageResponse(List<TicketSummaryResponse> tickets, int size, boolean first) {
+        List<TicketSummaryResponse> page = trimKeysetPage(tickets, size);
+        String nextCursor = nextCursor(tickets, page);
+
+        return PageResponse.<TicketSummaryResponse>builder()
+                .content(page)
+                .pageSize(size)
+                .first(first)
+                .last(nextCursor == null)
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private String ticketETag(UUID ticketId, LocalDateTime updatedDate, LocalDateTime lastCommentDate) {
+        return ETags.strong(ticketId, updatedDate, lastCommentDate);
+    }
+
+    /**
+     * Entity tag of a ticket list page. It is derived from the collection version, which is
+     * read before the list query, so a change racing with the query can only make the tag
+     * older than the data, never newer.
+     */
+    private String listETag(Object scope, Object position, int size) {
+        return ETags.strong(ticketChangeBroadcaster.collectionVersion(), scope, position, size);
+    }
+
+    private Limit keysetLimit(int size) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        // One extra row tells us whether a next page exists without a COUNT query
+        return Limit.of(size + 1);
+    }
+
+    private List<TicketSummaryResponse> trimKeysetPage(List<TicketSummaryResponse> tickets, int size) {
+        return tickets.size() > size ? tickets.subList(0, size) : tickets;
+    }
+
+    private String nextCursor(List<TicketSummaryResponse> fetched, List<TicketSummaryResponse> page) {
+        if (fetched.size() == page.size() || page.isEmpty()) {
+            return null;
+        }
+        TicketSummaryResponse lastTicket = page.get(page.size() - 1);
+        return new PageCursor(lastTicket.createdDate(), lastTicket.id()).encode();
+    }
+
+    public TicketListResponse buildTicketListResponse(List<TicketSummaryResponse> tickets){
         return TicketListResponse.builder()
-                .tickets(ticketList)
+                .tickets(tickets)
                 .build();
     }
 
@@ -271,7 +451,7 @@ public class TicketService {
                 .build();
     }
 
-    public TicketResponse buildTicketResponse(Ticket ticket, List<Comment>comments){
+    public TicketResponse buildTicketResponse(Ticket ticket, List<CommentRow> comments){
         List <CommentResponse> last10comments = comments.stream()
                 .map(this::buildCommentResponse)
                 .toList();
@@ -290,15 +470,23 @@ public class TicketService {
 
     /**
      * Builds a basic comment object
-     * @param c a comment
+     * @param row a comment with its commenter
      * @return a basic comment object
      */
-    public CommentResponse buildCommentResponse(Comment c){
-        Commenter commenter = Commenter.builder()
-                .id(c.getCommenter().getId())
-                .username(c.getCommenter().getUsername())
+    public CommentResponse buildCommentResponse(CommentRow row){
+        return CommentResponse.builder()
+                .id(row.id())
+                .message(row.message())
+                .commenter(Commenter.builder()
+                        .id(row.commenterId())
+                        .username(row.commenterUsername())
+                        .build())
+                .createdDate(row.createdDate())
+                .updatedDate(row.updatedDate())
                 .build();
+    }
 
+    public CommentResponse buildCommentResponse(Comment c, Commenter commenter){
         return CommentResponse.builder()
                 .id(c.getId())
                 .message(c.getMessage())
@@ -307,4 +495,11 @@ public class TicketService {
                 .updatedDate(c.getUpdatedDate())
                 .build();
     }
+
+    public Commenter buildCommenter(AuthenticatedUser user){
+        return Commenter.builder()
+                .id(user.id())
+                .username(user.username())
+                .build();
+    }
 }
@@ -0,0 +1,256 @@
+package com.cozycodr.ticket_support.service;
+
+import com.cozycodr.ticket_support.exception.UnauthorizedException;
+import com.cozycodr.ticket_support.helpers.ApiResponseBody;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketCountRow;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketStatsResponse;
+import com.cozycodr.ticket_support.model.dto.ticket.TicketStatusRow;
+import com.cozycodr.ticket_support.model.entity.Ticket;
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import com.cozycodr.ticket_support.repository.TicketRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.cozycodr.ticket_support.helpers.ResponseHelpers.buildSuccessResponse;
+import static com.cozycodr.ticket_support.helpers.SecurityHelpers.currentUser;
+import static com.cozycodr.ticket_support.helpers.TransactionHelpers.afterCommit;
+import static com.cozycodr.ticket_support.helpers.TransactionHelpers.afterCompletion;
+
+/**
+ * Ticket counts per status, priority and category, kept in memory so the dashboard never
+ * scans the ticket table. Every combination has its own counter, committed creates and status
+ * changes adjust them, and reading them costs the same however many tickets there are.
+ * <p>
+ * The counters are rebuilt from the database at startup and reconciled with it periodically,
+ * which corrects drift from changes made outside the application.
+ */
+@Slf4j
+@Service
+public class TicketStatsService {
+
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+    private static final TicketPriority[] PRIORITIES = TicketPriority.values();
+    private static final TicketCategory[] CATEGORIES = TicketCategory.values();
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final TicketRepository ticketRepository;
+
+    // One counter per status, priority and category combination, see cell()
+    private final LongAdder[] counts = new LongAdder[STATUSES.length * PRIORITIES.length * CATEGORIES.length];
+    // Changes per counter registered before their transaction commits, and those applied or
+    // rolled back, a counter with a difference has a change the database may already hold
+    private final LongAdder[] changesStarted = new LongAdder[counts.length];
+    private final LongAdder[] changesFinished = new LongAdder[counts.length];
+    private volatile LocalDateTime reconciledAt;
+
+    private final ScheduledExecutorService reconcileExecutor;
+
+    public TicketStatsService(
+            TicketRepository ticketRepository,
+            @Value("${app.ticket-stats.reconcile-interval-ms:300000}") long reconcileIntervalMs
+    ) {
+        this.ticketRepository = ticketRepository;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+            changesStarted[i] = new LongAdder();
+            changesFinished[i] = new LongAdder();
+        }
+
+        this.reconcileExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ticket-stats-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The first run is the startup rebuild, the counters start at zero
+        reconcileExecutor.scheduleWithFixedDelay(this::reconcile, 0, reconcileIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Counts of all tickets, for IT Support
+     * @return totals per status, priority, category and per status and category
+     */
+    public ResponseEntity<ApiResponseBody<TicketStatsResponse>> getTicketStats() {
+        if (!currentUser().isItSupport()) {
+            throw new UnauthorizedException("Only IT Support can view ticket statistics");
+        }
+
+        Map<TicketStatus, Long> byStatus = new EnumMap<>(TicketStatus.class);
+        Map<TicketPriority, Long> byPriority = new EnumMap<>(TicketPriority.class);
+        Map<TicketCategory, Long> byCategory = new EnumMap<>(TicketCategory.class);
+        Map<TicketStatus, Map<TicketCategory, Long>> byStatusAndCategory = new EnumMap<>(TicketStatus.class);
+        long total = 0;
+        for (TicketStatus status : STATUSES) {
+            Map<TicketCategory, Long> categories = new EnumMap<>(TicketCategory.class);
+            for (TicketPriority priority : PRIORITIES) {
+                for (TicketCategory category : CATEGORIES) {
+                    long count = counts[cell(status, priority, category)].sum();
+                    total += count;
+                    byStatus.merge(status, count, Long::sum);
+                    byPriority.merge(priority, count, Long::sum);
+                    byCategory.merge(category, count, Long::sum);
+                    categories.merge(category, count, Long::sum);
+                }
+            }
+            byStatusAndCategory.put(status, categories);
+        }
+
+        var data = TicketStatsResponse.builder()
+                .total(total)
+                .byStatus(byStatus)
+                .byPriority(byPriority)
+                .byCategory(byCategory)
+                .byStatusAndCategory(byStatusAndCategory)
+                .reconciledAt(reconciledAt)
+                .build();
+        return buildSuccessResponse(HttpStatus.OK, "Fetched ticket statistics", data);
+    }
+
+    /**
+     * Counts new tickets once the current transaction commits
+     * @param tickets the saved tickets
+     */
+    public void ticketsCreated(Collection<Ticket> tickets) {
+        long[] delta = new long[counts.length];
+        for (Ticket ticket : tickets) {
+            delta[cell(ticket.getStatus(), ticket.getPriority(), ticket.getCategory())]++;
+        }
+        register(delta);
+    }
+
+    /**
+     * Moves a ticket between status counters once the current transaction commits
+     * @param ticket the ticket, already holding its new status
+     * @param previousStatus status before the change
+     */
+    public void statusChanged(Ticket ticket, TicketStatus previousStatus) {
+        if (previousStatus == ticket.getStatus()) {
+            return;
+        }
+        long[] delta = new long[counts.length];
+        delta[cell(previousStatus, ticket.getPriority(), ticket.getCategory())]--;
+        delta[cell(ticket.getStatus(), ticket.getPriority(), ticket.getCategory())]++;
+        register(delta);
+    }
+
+    /**
+     * Moves tickets of a bulk update between status counters once the current transaction commits
+     * @param rows the changed tickets, holding their previous status
+     * @param status status they were all moved to
+     */
+    public void statusesChanged(Collection<TicketStatusRow> rows, TicketStatus status) {
+        long[] delta = new long[counts.length];
+        for (TicketStatusRow row : rows) {
+            delta[cell(row.status(), row.priority(), row.category())]--;
+            delta[cell(status, row.priority(), row.category())]++;
+        }
+        register(delta);
+    }
+
+    // Marks the changed counters in flight until the transaction ends, so reconcile leaves them alone
+    private void register(long[] delta) {
+        for (int i = 0; i < delta.length; i++) {
+            if (delta[i] != 0) {
+                changesStarted[i].increment();
+            }
+        }
+        afterCommit(() -> apply(delta));
+        afterCompletion(() -> {
+            for (int i = 0; i < delta.length; i++) {
+                if (delta[i] != 0) {
+                    changesFinished[i].increment();
+                }
+            }
+        });
+    }
+
+    private void apply(long[] delta) {
+        for (int i = 0; i < delta.length; i++) {
+            if (delta[i] != 0) {
+                counts[i].add(delta[i]);
+            }
+        }
+    }
+
+    /**
+     * Sets the counters to the database counts. A counter with a change in flight, registered
+     * but not yet applied or rolled back, or with a change registered while the counts were
+     * queried, is left alone: the query may or may not include that change, even one already
+     * committed whose delta is still to be applied. Such counters are tried again with a fresh
+     * query, up to a few times, then on the next run.
+     */
+    private void reconcile() {
+        try {
+            boolean[] settled = new boolean[counts.length];
+            int unsettled = counts.length;
+            long drift = 0;
+            for (int attempt = 0; attempt < RECONCILE_ATTEMPTS && unsettled > 0; attempt++) {
+                // Started before finished, a change finishing in between was applied before the query
+                long[] startedBefore = sums(changesStarted);
+                long[] finishedBefore = sums(changesFinished);
+                long[] expected = sums(counts);
+                long[] actual = new long[counts.length];
+                for (TicketCountRow row : ticketRepository.countByStatusPriorityCategory()) {
+                    actual[cell(row.status(), row.priority(), row.category())] = row.count();
+                }
+                long[] startedAfter = sums(changesStarted);
+
+                for (int i = 0; i < counts.length; i++) {
+                    if (settled[i] || startedBefore[i] != finishedBefore[i] || startedBefore[i] != startedAfter[i]) {
+                        continue;
+                    }
+                    settled[i] = true;
+                    unsettled--;
+                    if (actual[i] != expected[i]) {
+                        // Added as a difference, changes applied since are kept
+                        counts[i].add(actual[i] - expected[i]);
+                        drift += Math.abs(actual[i] - expected[i]);
+                    }
+                }
+            }
+
+            if (reconciledAt == null) {
+                log.debug("Rebuilt ticket counters from the database");
+            } else if (drift > 0) {
+                log.info("Corrected ticket counters by {} tickets", drift);
+            }
+            if (unsettled > 0) {
+                log.debug("{} ticket counters kept changing while reconciling, left for the next run", unsettled);
+            }
+            reconciledAt = LocalDateTime.now();
+        } catch (Exception e) {
+            log.warn("Reconciling ticket counters failed", e);
+        }
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    private static int cell(TicketStatus status, TicketPriority priority, TicketCategory category) {
+        return (status.ordinal() * PRIORITIES.length + priority.ordinal()) * CATEGORIES.length + category.ordinal();
+    }
+
+    @PreDestroy
+    public void stop() {
+        reconcileExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,67 @@
+package com.cozycodr.ticket_support.service;
+
+import com.cozycodr.ticket_support.helpers.ExpiringCache;
+import com.cozycodr.ticket_support.model.dto.auth.UserIdentity;
+import com.cozycodr.ticket_support.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded cache of user identities by username, in front of
+ * {@link UserRepository#findByUsername(String)}. Unknown usernames are not cached,
+ * so a user registering right after a failed lookup is found immediately.
+ */
+@Component
+public class UserIdentityCache {
+
+    private final UserRepository userRepository;
+    private final ExpiringCache<String, UserIdentity> identities;
+
+    public UserIdentityCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.user-cache.max-size:10000}") int maxSize,
+            @Value("${app.user-cache.ttl-seconds:600}") long ttlSeconds
+    ) {
+        this.userRepository = userRepository;
+        this.identities = new ExpiringCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+
+        Gauge.builder("user.cache.size", identities, ExpiringCache::size)
+                .description("User identities currently cached")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.hits", identities, ExpiringCache::hitCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.misses", identities, ExpiringCache::missCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.evictions", identities, ExpiringCache::evictionCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up a user identity, hitting the database only on a cache miss
+     * @param username username to look up
+     * @return the identity, or empty when no such user exists
+     */
+    public Optional<UserIdentity> findByUsername(String username) {
+        UserIdentity identity = identities.get(username);
+        if (identity != null) {
+            return Optional.of(identity);
+        }
+
+        Optional<UserIdentity> loaded = userRepository.findByUsername(username).map(UserIdentity::from);
+        loaded.ifPresent(value -> identities.put(username, value));
+        return loaded;
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            identities.invalidate(username);
+        }
+    }
+}
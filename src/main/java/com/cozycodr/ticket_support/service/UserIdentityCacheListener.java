@@ -0,0 +1,28 @@
+package com.cozycodr.ticket_support.service;
+
+import com.cozycodr.ticket_support.model.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts a user's cached identity whenever the user row is written, so a
+ * changed password or role is picked up on the next lookup.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserIdentityCacheListener {
+
+    // Resolved lazily, the cache depends on the repository which needs the entity manager factory first
+    private final ObjectProvider<UserIdentityCache> userIdentityCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userIdentityCache.ifAvailable(cache -> cache.invalidate(user.getUsername()));
+    }
+}
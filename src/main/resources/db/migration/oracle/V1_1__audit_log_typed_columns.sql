@@ -0,0 +1,21 @@
+-- Audit events are stored as typed columns instead of a formatted message only
+ALTER TABLE audit_log ADD (
+    event_type     VARCHAR2(40) CONSTRAINT audit_log_event_type_check CHECK (event_type IN ('TICKET_CREATED', 'COMMENT_ADDED', 'TICKET_STATUS_CHANGED', 'USER_REGISTERED', 'USER_LOGGED_IN')),
+    ticket_id      RAW(16),
+    comment_id     RAW(16),
+    actor_id       RAW(16),
+    actor_username VARCHAR2(255),
+    before_status  VARCHAR2(20),
+    after_status   VARCHAR2(20)
+);
+ALTER TABLE audit_log MODIFY (log_message NULL);
+
+-- Events are ordered by creation time, older rows without one take the migration time
+UPDATE audit_log SET created_date = SYSTIMESTAMP WHERE created_date IS NULL;
+ALTER TABLE audit_log MODIFY (created_date NOT NULL);
+
+-- Audit query indexes, newest first per ticket, actor and event type
+CREATE INDEX idx_audit_log_created ON audit_log (created_date, id);
+CREATE INDEX idx_audit_log_ticket_created ON audit_log (ticket_id, created_date, id);
+CREATE INDEX idx_audit_log_actor_created ON audit_log (actor_id, created_date, id);
+CREATE INDEX idx_audit_log_type_created ON audit_log (event_type, created_date, id);
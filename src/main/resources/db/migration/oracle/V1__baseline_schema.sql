@@ -1,3 +1,6 @@
+-- Baseline, the schema kept in schema.sql before migrations existed.
+-- Databases created from schema.sql are baselined at this version and continue with V1_1.
+
 -- Create audit_log table
 CREATE TABLE audit_log
 (
@@ -64,4 +67,4 @@ CREATE TABLE app_user_comments
 (
     app_user_id RAW(16) NOT NULL CONSTRAINT fk95p6gi8wwj69vkwi2c3l6exi0 REFERENCES app_user,
     comments_id RAW(16) NOT NULL CONSTRAINT ukn4sk01el3ktkdjhdttwdiua8x UNIQUE CONSTRAINT fk8r900gewkbqsxgk7ljk69lq40 REFERENCES comment
-);
\ No newline at end of file
+);
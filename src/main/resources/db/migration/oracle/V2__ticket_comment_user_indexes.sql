@@ -0,0 +1,25 @@
+-- Ticket lists: ORDER BY created_date DESC, id DESC, optionally per reporter.
+-- Oracle walks ascending indexes backwards, so no DESC columns are needed.
+CREATE INDEX idx_ticket_created ON ticket (created_date, id);
+CREATE INDEX idx_ticket_raised_by_created ON ticket (raised_by_id, created_date, id);
+
+-- Comments of a ticket in creation order, and the commenter foreign key
+CREATE INDEX idx_comment_ticket_created ON comment (ticket_id, created_date, id);
+CREATE INDEX idx_comment_commenter ON comment (commenter_id);
+
+-- Login and registration look users up by username, which must be unique. The baseline
+-- schema did not enforce that, so duplicates in an existing database stop the migration
+-- here with the names to rename or merge, rather than failing on the index.
+DECLARE
+    duplicates VARCHAR2(4000);
+BEGIN
+    SELECT LISTAGG(username, ', ') WITHIN GROUP (ORDER BY username) INTO duplicates
+    FROM (SELECT username FROM app_user GROUP BY username HAVING COUNT(*) > 1 ORDER BY username FETCH FIRST 10 ROWS ONLY);
+    IF duplicates IS NOT NULL THEN
+        RAISE_APPLICATION_ERROR(-20001, 'app_user has duplicate usernames (' || duplicates
+            || '), rename or merge those accounts before migrating');
+    END IF;
+END;
+/
+
+CREATE UNIQUE INDEX ux_app_user_username ON app_user (username);
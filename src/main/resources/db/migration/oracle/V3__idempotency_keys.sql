@@ -0,0 +1,17 @@
+-- Responses of POSTs sent with an Idempotency-Key, replayed when the same user retries the key.
+-- Rows expire after app.idempotency.ttl-seconds and are purged in the background.
+CREATE TABLE idempotency_key
+(
+    id              RAW(16) NOT NULL PRIMARY KEY,
+    user_id         RAW(16) NOT NULL,
+    idempotency_key VARCHAR2(100) NOT NULL,
+    request_hash    VARCHAR2(64) NOT NULL,
+    response_status NUMBER(10) NOT NULL,
+    response_body   CLOB NOT NULL,
+    created_date    TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL
+);
+
+-- Keys are scoped per user, the unique index also serializes concurrent retries of one key
+CREATE UNIQUE INDEX ux_idempotency_key_user_key ON idempotency_key (user_id, idempotency_key);
+CREATE INDEX idx_idempotency_key_expires ON idempotency_key (expires_at);
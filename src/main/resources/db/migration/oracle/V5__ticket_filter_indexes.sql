@@ -0,0 +1,13 @@
+-- Filtered ticket lists: equality facets lead, then the (created_date, id) sort key, so a
+-- filtered page is a range scan that stops after one page and never sorts.
+-- Oracle walks ascending indexes backwards, so no DESC columns are needed.
+CREATE INDEX idx_ticket_status_created ON ticket (status, created_date, id);
+CREATE INDEX idx_ticket_priority_created ON ticket (priority, created_date, id);
+CREATE INDEX idx_ticket_category_created ON ticket (category, created_date, id);
+
+-- The triage views: open tickets of one category, or of one priority
+CREATE INDEX idx_ticket_status_cat_created ON ticket (status, category, created_date, id);
+CREATE INDEX idx_ticket_status_prio_created ON ticket (status, priority, created_date, id);
+
+-- Filters by reporter and the plain date range use idx_ticket_raised_by_created and
+-- idx_ticket_created from V2.
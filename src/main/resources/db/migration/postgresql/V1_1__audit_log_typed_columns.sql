@@ -0,0 +1,20 @@
+-- Audit events are stored as typed columns instead of a formatted message only
+ALTER TABLE audit_log
+    ADD COLUMN event_type     VARCHAR(40) CONSTRAINT audit_log_event_type_check CHECK (event_type IN ('TICKET_CREATED', 'COMMENT_ADDED', 'TICKET_STATUS_CHANGED', 'USER_REGISTERED', 'USER_LOGGED_IN')),
+    ADD COLUMN ticket_id      UUID,
+    ADD COLUMN comment_id     UUID,
+    ADD COLUMN actor_id       UUID,
+    ADD COLUMN actor_username VARCHAR(255),
+    ADD COLUMN before_status  VARCHAR(20),
+    ADD COLUMN after_status   VARCHAR(20),
+    ALTER COLUMN log_message DROP NOT NULL;
+
+-- Events are ordered by creation time, older rows without one take the migration time
+UPDATE audit_log SET created_date = CURRENT_TIMESTAMP WHERE created_date IS NULL;
+ALTER TABLE audit_log ALTER COLUMN created_date SET NOT NULL;
+
+-- Audit query indexes, newest first per ticket, actor and event type
+CREATE INDEX idx_audit_log_created ON audit_log (created_date, id);
+CREATE INDEX idx_audit_log_ticket_created ON audit_log (ticket_id, created_date, id);
+CREATE INDEX idx_audit_log_actor_created ON audit_log (actor_id, created_date, id);
+CREATE INDEX idx_audit_log_type_created ON audit_log (event_type, created_date, id);
@@ -0,0 +1,15 @@
+-- Comment relations are owned by comment.ticket_id and comment.commenter_id.
+-- Fold the legacy join tables into the comment row, then drop them.
+UPDATE comment c
+SET ticket_id = (SELECT tc.ticket_id FROM ticket_comments tc WHERE tc.comments_id = c.id)
+WHERE c.ticket_id IS NULL;
+
+UPDATE comment c
+SET commenter_id = COALESCE(
+        (SELECT auc.app_user_id FROM app_user_comments auc WHERE auc.comments_id = c.id),
+        (SELECT uc.user_id FROM user_comments uc WHERE uc.comments_id = c.id))
+WHERE c.commenter_id IS NULL;
+
+DROP TABLE ticket_comments;
+DROP TABLE user_comments;
+DROP TABLE app_user_comments;
@@ -0,0 +1,24 @@
+-- Ticket lists: ORDER BY created_date DESC, id DESC, optionally per reporter.
+-- PostgreSQL scans btree indexes backwards, so no DESC columns are needed.
+CREATE INDEX idx_ticket_created ON ticket (created_date, id);
+CREATE INDEX idx_ticket_raised_by_created ON ticket (raised_by_id, created_date, id);
+
+-- Comments of a ticket in creation order, and the commenter foreign key
+CREATE INDEX idx_comment_ticket_created ON comment (ticket_id, created_date, id);
+CREATE INDEX idx_comment_commenter ON comment (commenter_id);
+
+-- Login and registration look users up by username, which must be unique. The baseline
+-- schema did not enforce that, so duplicates in an existing database stop the migration
+-- here with the names to rename or merge, rather than failing on the index.
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(username, ', ' ORDER BY username) INTO duplicates
+    FROM (SELECT username FROM app_user GROUP BY username HAVING count(*) > 1 ORDER BY username LIMIT 10) d;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'app_user has duplicate usernames (%), rename or merge those accounts before migrating', duplicates;
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX ux_app_user_username ON app_user (username);
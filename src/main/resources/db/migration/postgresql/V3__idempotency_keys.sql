@@ -0,0 +1,17 @@
+-- Responses of POSTs sent with an Idempotency-Key, replayed when the same user retries the key.
+-- Rows expire after app.idempotency.ttl-seconds and are purged in the background.
+CREATE TABLE idempotency_key
+(
+    id              UUID NOT NULL PRIMARY KEY,
+    user_id         UUID NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash    VARCHAR(64) NOT NULL,
+    response_status INTEGER NOT NULL,
+    response_body   TEXT NOT NULL,
+    created_date    TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL
+);
+
+-- Keys are scoped per user, the unique index also serializes concurrent retries of one key
+CREATE UNIQUE INDEX ux_idempotency_key_user_key ON idempotency_key (user_id, idempotency_key);
+CREATE INDEX idx_idempotency_key_expires ON idempotency_key (expires_at);
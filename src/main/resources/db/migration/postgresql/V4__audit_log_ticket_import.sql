@@ -0,0 +1,7 @@
+-- Bulk imports write one TICKETS_IMPORTED summary per chunk, carrying the number of tickets
+ALTER TABLE audit_log ADD COLUMN affected_count INTEGER;
+
+ALTER TABLE audit_log DROP CONSTRAINT audit_log_event_type_check;
+ALTER TABLE audit_log ADD CONSTRAINT audit_log_event_type_check CHECK (event_type IN (
+    'TICKET_CREATED', 'COMMENT_ADDED', 'TICKET_STATUS_CHANGED', 'USER_REGISTERED', 'USER_LOGGED_IN',
+    'TICKETS_IMPORTED'));
@@ -0,0 +1,71 @@
+package com.cozycodr.ticket_support.client.service;
+
+import com.cozycodr.ticket_support.client.utils.AuthManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiTransportTest {
+
+    private final ApiTransport transport = transport(true);
+
+    @AfterEach
+    void shutdown() {
+        transport.shutdown();
+    }
+
+    @Test
+    void retryCeilingDoublesUpToTheMaxDelay() {
+        assertThat(transport.retryCeilingMillis(1)).isEqualTo(200);
+        assertThat(transport.retryCeilingMillis(2)).isEqualTo(400);
+        assertThat(transport.retryCeilingMillis(4)).isEqualTo(1600);
+        assertThat(transport.retryCeilingMillis(5)).isEqualTo(3000);
+        // Far past the point where the shift would overflow
+        assertThat(transport.retryCeilingMillis(60)).isEqualTo(3000);
+        assertThat(transport.retryCeilingMillis(200)).isEqualTo(3000);
+    }
+
+    @Test
+    void hedgesOnlyOnceThereAreEnoughSamples() {
+        for (int i = 0; i < 19; i++) {
+            transport.recordLatencySample(50);
+        }
+        assertThat(transport.hedgeDelayMillis()).isEqualTo(-1);
+
+        transport.recordLatencySample(50);
+        assertThat(transport.hedgeDelayMillis()).isEqualTo(50);
+    }
+
+    @Test
+    void hedgeDelayIsTheP95OfRecentSamples() {
+        for (int latency = 1; latency <= 100; latency++) {
+            transport.recordLatencySample(latency);
+        }
+        assertThat(transport.hedgeDelayMillis()).isEqualTo(95);
+
+        // Older samples are overwritten once the ring buffer is full
+        for (int i = 0; i < 100; i++) {
+            transport.recordLatencySample(10);
+        }
+        assertThat(transport.hedgeDelayMillis()).isEqualTo(10);
+    }
+
+    @Test
+    void doesNotHedgeWhenDisabled() {
+        ApiTransport unhedged = transport(false);
+        try {
+            for (int i = 0; i < 100; i++) {
+                unhedged.recordLatencySample(50);
+            }
+            assertThat(unhedged.hedgeDelayMillis()).isEqualTo(-1);
+        } finally {
+            unhedged.shutdown();
+        }
+    }
+
+    private static ApiTransport transport(boolean hedgingEnabled) {
+        return new ApiTransport(new AuthManager(), "http://localhost:8080", 1000, 1000, 1,
+                3, 200, 3000, hedgingEnabled, 5, 15_000);
+    }
+}
@@ -0,0 +1,102 @@
+package com.cozycodr.ticket_support.client.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MILLIS = 10_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final CircuitBreaker breaker = new CircuitBreaker(FAILURE_THRESHOLD, OPEN_MILLIS, now::get);
+
+    @Test
+    void opensAfterConsecutiveFailuresAndClosesAfterASuccessfulProbe() {
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        // Jitter only ever stretches the open period, by at most a fifth
+        assertThat(breaker.remainingOpenMillis()).isBetween(OPEN_MILLIS, OPEN_MILLIS + OPEN_MILLIS / 5);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        openPeriodPassed();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.remainingOpenMillis()).isZero();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            breaker.onFailure();
+        }
+        breaker.onSuccess();
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            breaker.onFailure();
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void letsOneProbeThroughWhileHalfOpen() {
+        trip();
+        openPeriodPassed();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void failedProbeOpensTheBreakerAgain() {
+        trip();
+        openPeriodPassed();
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.remainingOpenMillis()).isGreaterThanOrEqualTo(OPEN_MILLIS);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void releasedProbeLetsTheNextRequestProbe() {
+        trip();
+        openPeriodPassed();
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // The probe lost a hedge race and was cancelled, it neither closes nor reopens the breaker
+        breaker.release();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    private void trip() {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void openPeriodPassed() {
+        now.addAndGet(breaker.remainingOpenMillis());
+    }
+}
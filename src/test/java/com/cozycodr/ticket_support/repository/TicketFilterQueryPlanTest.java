@@ -0,0 +1,163 @@
+package com.cozycodr.ticket_support.repository;
+
+import com.cozycodr.ticket_support.model.dto.ticket.TicketFilter;
+import com.cozycodr.ticket_support.model.entity.Ticket;
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import com.cozycodr.ticket_support.model.enums.TicketStatus;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static com.cozycodr.ticket_support.repository.TicketSpecifications.after;
+import static com.cozycodr.ticket_support.repository.TicketSpecifications.matching;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Explains the SQL Hibernate generates for the filtered ticket list on PostgreSQL, with the
+ * Flyway schema and a table large enough that the planner would rather scan it than use a
+ * poor index. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TicketFilterQueryPlanTest {
+
+    // EXPLAIN (GENERIC_PLAN) needs PostgreSQL 16
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+    private static final Pattern LIMIT_PARAMETER = Pattern.compile("(fetch first|limit) \\?", Pattern.CASE_INSENSITIVE);
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class StatementCapture {
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    // Seeded once for all cases, outside the test transactions, so the rows and statistics stay
+    @BeforeAll
+    static void seedTickets(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                INSERT INTO app_user (id, created_date, first_name, last_name, password, role, username)
+                SELECT gen_random_uuid(), now(), 'Plan', 'Reporter ' || n, 'not-a-hash', 'EMPLOYEE', 'plan.reporter' || n
+                FROM generate_series(0, 199) n
+                """);
+        // Facets are spread independently, so no combination is unusually selective
+        jdbcTemplate.update("""
+                INSERT INTO ticket (id, category, created_date, description, priority, status, title, raised_by_id)
+                SELECT gen_random_uuid(), (i / 3) % 4, timestamp '2025-01-01' + i * interval '1 minute',
+                       'Query plan ticket', i % 3, (i / 7) % 3, 'Ticket ' || i, u.id
+                FROM generate_series(1, 100000) i
+                JOIN (SELECT id, row_number() OVER (ORDER BY username) - 1 AS n FROM app_user) u ON u.n = i % 200
+                """);
+        jdbcTemplate.execute("ANALYZE app_user");
+        jdbcTemplate.execute("ANALYZE ticket");
+    }
+
+    static Stream<Arguments> filters() {
+        LocalDateTime from = LocalDateTime.of(2025, 2, 1, 0, 0);
+        return Stream.of(
+                Arguments.of("no filter", filter(null, null, null, false, null, null)),
+                Arguments.of("status", filter(TicketStatus.NEW, null, null, false, null, null)),
+                Arguments.of("priority", filter(null, TicketPriority.HIGH, null, false, null, null)),
+                Arguments.of("category", filter(null, null, TicketCategory.NETWORK, false, null, null)),
+                Arguments.of("raisedBy", filter(null, null, null, true, null, null)),
+                Arguments.of("created range", filter(null, null, null, false, from, from.plusDays(7))),
+                Arguments.of("status and category", filter(TicketStatus.NEW, null, TicketCategory.NETWORK, false, null, null)),
+                Arguments.of("status and priority", filter(TicketStatus.NEW, TicketPriority.HIGH, null, false, null, null)),
+                Arguments.of("status and created range", filter(TicketStatus.IN_PROGRESS, null, null, false, from, from.plusDays(7)))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filters")
+    void firstPageUsesAnIndex(String name, TicketFilter filter) {
+        assertThat(planOf(matching(filter)))
+                .as("plan of %s", name)
+                .noneMatch(line -> line.contains("Seq Scan on ticket"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filters")
+    void pageAfterCursorUsesAnIndex(String name, TicketFilter filter) {
+        Specification<Ticket> query = matching(filter)
+                .and(after(LocalDateTime.of(2025, 2, 15, 0, 0), UUID.randomUUID()));
+        assertThat(planOf(query))
+                .as("plan of %s after a cursor", name)
+                .noneMatch(line -> line.contains("Seq Scan on ticket"));
+    }
+
+    // Generic plans do not look at bound values, so any reporter id will do
+    private static TicketFilter filter(TicketStatus status, TicketPriority priority, TicketCategory category,
+                                       boolean byReporter, LocalDateTime from, LocalDateTime to) {
+        return new TicketFilter(status, priority, category, byReporter ? UUID.randomUUID() : null, from, to);
+    }
+
+    /**
+     * Runs the keyset page query to capture its SQL, then explains that SQL as a generic plan,
+     * the plan a prepared statement gets regardless of the bound values
+     */
+    private List<String> planOf(Specification<Ticket> query) {
+        STATEMENTS.clear();
+        ticketRepository.findTicketSummaries(query, Limit.of(PAGE_SIZE + 1));
+        String sql = STATEMENTS.stream()
+                .filter(statement -> statement.contains("ticket"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        // The page size is known, the planner costs LIMIT by it; other parameters stay generic
+        String limited = LIMIT_PARAMETER.matcher(sql).replaceAll(match -> match.group(1) + " " + (PAGE_SIZE + 1));
+        StringBuilder positional = new StringBuilder();
+        Matcher parameter = Pattern.compile("\\?").matcher(limited);
+        int index = 0;
+        while (parameter.find()) {
+            parameter.appendReplacement(positional, "\\$" + (++index));
+        }
+        parameter.appendTail(positional);
+
+        return jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + positional, String.class);
+    }
+}
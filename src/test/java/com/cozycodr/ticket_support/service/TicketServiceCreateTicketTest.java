@@ -0,0 +1,121 @@
+package com.cozycodr.ticket_support.service;
+
+import com.cozycodr.ticket_support.model.dto.auth.AuthenticatedUser;
+import com.cozycodr.ticket_support.model.dto.ticket.CreateTicketRequest;
+import com.cozycodr.ticket_support.model.entity.Ticket;
+import com.cozycodr.ticket_support.model.entity.User;
+import com.cozycodr.ticket_support.model.enums.Role;
+import com.cozycodr.ticket_support.model.enums.TicketCategory;
+import com.cozycodr.ticket_support.model.enums.TicketPriority;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TicketService.class)
+// Plain H2 mode, PostgreSQL mode rejects the tinyint columns Hibernate generates for the ordinal enums
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:create-ticket;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never"
+})
+class TicketServiceCreateTicketTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private AuditLogService auditLogService;
+
+    @MockitoBean
+    private TicketChangeBroadcaster ticketChangeBroadcaster;
+
+    @MockitoBean
+    private TicketStatsService ticketStatsService;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createTicketIssuesSameStatementsRegardlessOfExistingTickets() {
+        long firstTicketStatements = statementsToCreateTicket(userWithTickets("first.reporter", 0));
+        long heavyReporterStatements = statementsToCreateTicket(userWithTickets("monitoring.bot", 250));
+
+        assertThat(heavyReporterStatements).isEqualTo(firstTicketStatements);
+    }
+
+    private long statementsToCreateTicket(User user) {
+        AuthenticatedUser principal = AuthenticatedUser.from(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        ticketService.createTicket(newTicketRequest());
+        entityManager.flush();
+
+        // No user lookup, and neither ticketsRaised nor comments may be initialized on the create path
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User userWithTickets(String username, int ticketCount) {
+        User user = entityManager.persist(User.builder()
+                .firstName("Test")
+                .lastName("Reporter")
+                .username(username)
+                .password("not-a-real-hash")
+                .role(Role.EMPLOYEE)
+                .build());
+
+        for (int i = 0; i < ticketCount; i++) {
+            entityManager.persist(Ticket.builder()
+                    .title("Existing ticket " + i)
+                    .description("Raised before the measured create call")
+                    .priority(TicketPriority.LOW)
+                    .category(TicketCategory.OTHER)
+                    .raisedBy(user)
+                    .build());
+        }
+        return user;
+    }
+
+    private CreateTicketRequest newTicketRequest() {
+        CreateTicketRequest request = new CreateTicketRequest();
+        request.setTitle("Disk usage above 90%");
+        request.setDescription("Alert raised by the monitoring pipeline");
+        request.setPriority(TicketPriority.HIGH);
+        request.setCategory(TicketCategory.HARDWARE);
+        return request;
+    }
+}